@@ -0,0 +1,38 @@
+package de.unima.classifiers.benchmark;
+
+import de.unima.classifiers.dataset.ARFF;
+import de.unima.classifiers.dataset.DataSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of loading an ARFF file, i.e., parsing and creating the samples.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ARFFBenchmark {
+    @Param({"data/data_train.arff"})
+    public String file;
+
+    @Benchmark
+    public DataSet load() throws IOException {
+        DataSet ds = new ARFF();
+        ds.setFeatureFilter(BenchmarkData.FEATURE_FILTER, false);
+
+        try (FileInputStream is = new FileInputStream(this.file)) {
+            ds.load(is);
+        }
+
+        return ds;
+    }
+}
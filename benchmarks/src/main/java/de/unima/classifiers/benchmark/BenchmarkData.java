@@ -0,0 +1,111 @@
+package de.unima.classifiers.benchmark;
+
+import de.unima.classifiers.SplitMixRandom;
+import de.unima.classifiers.dataset.ARFF;
+import de.unima.classifiers.dataset.DataSet;
+import de.unima.classifiers.structure.Sample;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data for the benchmarks. Either one of the bundled ARFF files (with the feature filter of the example) or synthetic
+ * data where each class is a gaussian blob with a random center per feature.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class BenchmarkData {
+    public static final String    SYNTHETIC      = "synthetic";
+    public static final Integer[] FEATURE_FILTER = new Integer[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 15, 16, 17, 21, 22, 23, 27, 28, 29, 36, 37, 38, 39, 40, 41, 46, 47, 49};
+
+    private List<Sample> samples;
+    private int          numOfClasses;
+    private int          numOfFeatures;
+    private double[]     minFeatRange;
+    private double[]     maxFeatRange;
+
+    // numClasses and numFeatures are only considered for synthetic data
+    public static BenchmarkData load(String data, int numClasses, int numFeatures) throws IOException {
+        if (SYNTHETIC.equals(data)) {
+            return synthetic(numClasses, numFeatures, 10000, 42L);
+        }
+
+        DataSet ds = new ARFF();
+        ds.setFeatureFilter(FEATURE_FILTER, false);
+        try (FileInputStream is = new FileInputStream(data)) {
+            ds.load(is);
+        }
+
+        BenchmarkData bd = new BenchmarkData();
+        bd.samples = ds.getSamples();
+        bd.numOfClasses = ds.getNumOfClasses();
+        bd.numOfFeatures = ds.getNumOfFeatures();
+        bd.minFeatRange = ds.getMinFeatRange();
+        bd.maxFeatRange = ds.getMaxFeatRange();
+
+        return bd;
+    }
+
+    public static BenchmarkData synthetic(int numClasses, int numFeatures, int numSamples, long seed) {
+        SplitMixRandom random  = new SplitMixRandom(seed);
+        double[][]     centers = new double[numClasses][numFeatures];
+
+        for (int nClass = 0; nClass < numClasses; nClass++) {
+            for (int nFeature = 0; nFeature < numFeatures; nFeature++) {
+                centers[nClass][nFeature] = random.nextDouble(-5.0d, 5.0d);
+            }
+        }
+
+        BenchmarkData bd = new BenchmarkData();
+        bd.samples = new ArrayList<>(numSamples);
+        bd.numOfClasses = numClasses;
+        bd.numOfFeatures = numFeatures;
+        bd.minFeatRange = new double[numFeatures];
+        bd.maxFeatRange = new double[numFeatures];
+
+        for (int i = 0; i < numSamples; i++) {
+            int      label  = random.nextInt(numClasses);
+            double[] values = new double[numFeatures];
+
+            for (int nFeature = 0; nFeature < numFeatures; nFeature++) {
+                // sum of uniform values, approximately gaussian
+                double noise = random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5d;
+                values[nFeature] = centers[label][nFeature] + 2.0d * noise;
+
+                if (i == 0 || values[nFeature] < bd.minFeatRange[nFeature]) {
+                    bd.minFeatRange[nFeature] = values[nFeature];
+                }
+                if (i == 0 || values[nFeature] > bd.maxFeatRange[nFeature]) {
+                    bd.maxFeatRange[nFeature] = values[nFeature];
+                }
+            }
+
+            bd.samples.add(new Sample(values, label, 1.0d, i));
+        }
+
+        return bd;
+    }
+
+    public List<Sample> getSamples() {
+        return samples;
+    }
+
+    public int getNumOfClasses() {
+        return numOfClasses;
+    }
+
+    public int getNumOfFeatures() {
+        return numOfFeatures;
+    }
+
+    public double[] getMinFeatRange() {
+        return minFeatRange;
+    }
+
+    public double[] getMaxFeatRange() {
+        return maxFeatRange;
+    }
+}
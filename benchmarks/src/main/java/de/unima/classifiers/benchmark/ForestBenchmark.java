@@ -0,0 +1,109 @@
+package de.unima.classifiers.benchmark;
+
+import de.unima.classifiers.Config;
+import de.unima.classifiers.online.randomforest.CompiledForest;
+import de.unima.classifiers.online.randomforest.RandomForest;
+import de.unima.classifiers.structure.Result;
+import de.unima.classifiers.structure.Sample;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of training and classifying single samples. The forest for classification is trained once per trial
+ * (one pass over the data), the forest for training is recreated for each iteration.
+ * <p>
+ * Run with: java -jar benchmarks/target/benchmarks.jar ForestBenchmark -prof gc -p numTree=10,100
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForestBenchmark {
+    @Param({"10"})
+    public int     numTree;
+    @Param({"20"})
+    public int     maxDepth;
+    @Param({"20"})
+    public int     numRandomTests;
+    @Param({"false", "true"})
+    public boolean refineThreshold;
+    @Param({"false", "true"})
+    public boolean singlePrecision;
+    @Param({"8"})
+    public int     numClasses;
+    @Param({"20"})
+    public int     numFeatures;
+    @Param({BenchmarkData.SYNTHETIC, "data/data_train.arff"})
+    public String  data;
+
+    private BenchmarkData  ds;
+    private Config         config;
+    private RandomForest   trained;
+    private CompiledForest compiled;
+    private RandomForest   forest;
+    private Result         result;
+    private int            next;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        this.ds = BenchmarkData.load(this.data, this.numClasses, this.numFeatures);
+
+        this.config = new Config();
+        this.config.numTree = this.numTree;
+        this.config.maxDepth = this.maxDepth;
+        this.config.numRandomTests = this.numRandomTests;
+        this.config.refineThreshold = this.refineThreshold;
+        this.config.singlePrecision = this.singlePrecision;
+        this.config.seed = 42L;
+
+        this.trained = this.createForest();
+        for (Sample sample : this.ds.getSamples()) {
+            this.trained.update(sample);
+        }
+        this.compiled = this.trained.compile();
+        this.result = new Result(this.ds.getNumOfClasses());
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        this.forest = this.createForest();
+        this.next = 0;
+    }
+
+    @Benchmark
+    public void update() {
+        this.forest.update(this.nextSample());
+    }
+
+    @Benchmark
+    public int eval() {
+        Arrays.fill(this.result.getConfidence(), 0.0d);
+        this.trained.eval(this.nextSample(), this.result);
+        return this.result.getPrediction();
+    }
+
+    @Benchmark
+    public int evalCompiled() {
+        Arrays.fill(this.result.getConfidence(), 0.0d);
+        this.compiled.eval(this.nextSample(), this.result);
+        return this.result.getPrediction();
+    }
+
+    private Sample nextSample() {
+        Sample sample = this.ds.getSamples().get(this.next);
+        this.next = (this.next + 1) % this.ds.getSamples().size();
+        return sample;
+    }
+
+    private RandomForest createForest() {
+        return new RandomForest(this.config, this.ds.getNumOfClasses(), this.ds.getNumOfFeatures(), this.ds.getMinFeatRange(), this.ds.getMaxFeatRange());
+    }
+}
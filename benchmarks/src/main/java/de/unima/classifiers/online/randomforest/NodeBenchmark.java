@@ -0,0 +1,101 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.Config;
+import de.unima.classifiers.SplitMixRandom;
+import de.unima.classifiers.benchmark.BenchmarkData;
+import de.unima.classifiers.structure.Sample;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the internals of a tree: updating a node (including splits) and scoring a random test. The benchmark
+ * resides in the package of the classifier to access the package-private classes.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeBenchmark {
+    @Param({"20"})
+    public int     maxDepth;
+    @Param({"20"})
+    public int     numRandomTests;
+    @Param({"false", "true"})
+    public boolean refineThreshold;
+    @Param({"RANDOM", "EXACT"})
+    public String  refineMode;
+    @Param({"CACHE", "HISTOGRAM"})
+    public String  splitStats;
+    @Param({"GINI", "INFO", "HELLINGER"})
+    public String  scoreMeasure;
+    @Param({"false", "true"})
+    public boolean singlePrecision;
+    @Param({"8"})
+    public int     numClasses;
+    @Param({"20"})
+    public int     numFeatures;
+    @Param({BenchmarkData.SYNTHETIC})
+    public String  data;
+
+    private BenchmarkData  ds;
+    private Config         config;
+    private SplitMixRandom random;
+    private RandomNode     node;
+    private RandomTest     test;
+    private int            next;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        this.ds = BenchmarkData.load(this.data, this.numClasses, this.numFeatures);
+
+        this.config = new Config();
+        this.config.maxDepth = this.maxDepth;
+        this.config.numRandomTests = this.numRandomTests;
+        this.config.refineThreshold = this.refineThreshold;
+        this.config.refineMode = this.refineMode;
+        this.config.splitStats = this.splitStats;
+        this.config.scoreMeasure = this.scoreMeasure;
+        this.config.singlePrecision = this.singlePrecision;
+        this.random = new SplitMixRandom(42L);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        this.node = new RandomNode(this.config, this.ds.getNumOfClasses(), this.ds.getNumOfFeatures(), this.ds.getMinFeatRange(), this.ds.getMaxFeatRange(), 0, this.random, null);
+        this.next = 0;
+    }
+
+    // a test that has seen 'leafCacheSize' samples, i.e., is ready to be scored
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        SampleBuffer buffer = new SampleBuffer(this.config.leafCacheSize, this.config.singlePrecision);
+        this.test = new RandomTest(this.config, this.ds.getNumOfClasses(), this.ds.getNumOfFeatures(), this.ds.getMinFeatRange(), this.ds.getMaxFeatRange(), this.random, buffer);
+
+        int numSamples = Math.max(this.config.leafCacheSize, (int) this.config.sampleThreshold);
+        for (int i = 0; i < numSamples; i++) {
+            Sample sample = this.ds.getSamples().get(i % this.ds.getSamples().size());
+            buffer.add(sample, sample.getWeight());
+            this.test.update(sample, sample.getWeight());
+        }
+    }
+
+    @Benchmark
+    public void updateNode() {
+        Sample sample = this.ds.getSamples().get(this.next);
+        this.next = (this.next + 1) % this.ds.getSamples().size();
+        this.node.update(sample, sample.getWeight());
+    }
+
+    // includes the threshold optimization if refineThreshold is set
+    @Benchmark
+    public double scoreTest() {
+        return this.test.score();
+    }
+}
@@ -5,18 +5,41 @@ package de.unima.classifiers;
  * afterwards might result in side effects.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
-public class Config {
+public class Config implements Cloneable {
     public int     numTree                = 10;         // 100
     public int     maxDepth               = 20;
     public double  sampleThreshold        = 200;
     public int     numRandomTests         = 20;
     public int     numEpochs              = 10;
     public boolean refineThreshold        = true;       // true=needs more memory
-    public int     leafCacheSize          = 100;        // only considered if refineThreshold is true
+    public int     leafCacheSize          = 100;        // only considered if refineThreshold is true and splitStats is CACHE
     public int     genRanThres            = 200;
-    public String  scoreMeasure           = "GINI";     // INFO; GINI
+    public String  refineMode             = "RANDOM";   // RANDOM=genRanThres random thresholds; EXACT=every cut between two cached values
+    public String  splitStats             = "CACHE";    // CACHE=leafCacheSize samples per test; HISTOGRAM=numBins bins per class and test
+    public int     numBins                = 32;         // only considered if splitStats is HISTOGRAM or binnedFeatures is true
+    public String  scoreMeasure           = "GINI";     // INFO; GINI; HELLINGER
     public double  poissonLambda          = 1.0d;       // do not change this value
     public boolean weightIndividualResult = false;
-}
\ No newline at end of file
+    public int     maxNodes               = -1;         // -1=unlimited; nodes of all trees, leaves that exceed it are frozen
+    public boolean collapseSubtrees       = false;      // true=collapse the least visited subtree of a tree to split a more visited leaf
+    public long    seed                   = -1;         // -1=seed from system time
+    public boolean weightedBagging        = false;      // true=apply the poisson count as sample weight in one update; false=repeat the update
+    public int     numThreads             = 1;          // 1=train trees on the caller's thread; >1=one worker per group of trees
+    public int     trainQueueSize         = 1024;       // only considered if numThreads > 1
+    public int     evalChunkSize          = 256;        // samples per task of RandomForest.evalBatch
+    public boolean concurrentEval         = false;      // true=eval does not wait for queued samples and may run concurrently to update
+    public boolean recordLatency          = false;      // true=record the latency of update, eval, and node splits in histograms
+    public boolean singlePrecision        = false;      // true=store buffered feature values, statistics of tests, and the compiled model as float
+    public boolean binnedFeatures         = false;      // true=feature values are bin codes in [0, numBins) (BinnedDataSet), thresholds are bin indices
+
+    // copy of all parameters, e.g., to configure several classifiers alike
+    public Config copy() {
+        try {
+            return (Config) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package de.unima.classifiers;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency Histogram. Records durations in nanoseconds into log-linear buckets (as HdrHistogram does): values below 256
+ * are counted exactly, larger values are counted in buckets whose width is 1/128 of their magnitude, i.e., percentiles
+ * have a relative error below 1 %. The buckets cover values below 2^45 ns (about 9.8 h), larger values are counted in
+ * the last bucket. The memory is fixed (about 40 KB) and recording is lock-free, hence, a histogram can be shared by
+ * several threads.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS    = 8;
+    private static final int SUB_COUNT   = 1 << SUB_BITS;
+    private static final int HALF_COUNT  = SUB_COUNT / 2;
+    private static final int MAX_BITS    = 44;
+    private static final int NUM_BUCKETS = SUB_COUNT + (MAX_BITS - SUB_BITS + 1) * HALF_COUNT;
+
+    private AtomicLongArray counts;
+    private LongAdder       total;
+    private LongAdder       sum;
+    private AtomicLong      max;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(NUM_BUCKETS);
+        this.total = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+
+        this.counts.incrementAndGet(getIndex(value));
+        this.total.increment();
+        this.sum.add(value);
+
+        long current = this.max.get();
+        while (value > current && !this.max.compareAndSet(current, value)) {
+            current = this.max.get();
+        }
+    }
+
+    // adds the values of the other histogram, e.g., of another fold
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                this.counts.addAndGet(i, count);
+            }
+        }
+
+        this.total.add(other.total.sum());
+        this.sum.add(other.sum.sum());
+
+        long value   = other.max.get();
+        long current = this.max.get();
+        while (value > current && !this.max.compareAndSet(current, value)) {
+            current = this.max.get();
+        }
+    }
+
+    public long getCount() {
+        return this.total.sum();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    public double getMean() {
+        return (double) this.sum.sum() / this.total.sum();
+    }
+
+    /**
+     * Smallest recorded value such that 'percentile' % of all values are less than or equal to it, e.g., 99.9 for the
+     * 99.9th percentile. The value is the upper bound of its bucket, but never larger than the maximum. Returns 0 if
+     * nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = this.getCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank       = Math.max(1, (long) Math.ceil(percentile / 100.0d * count));
+        long cumulative = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            cumulative += this.counts.get(i);
+            if (cumulative >= rank) {
+                return Math.min(getUpperBound(i), this.getMax());
+            }
+        }
+
+        return this.getMax();  // values recorded concurrently
+    }
+
+    // count, mean, p50, p99, p99.9, and max in microseconds
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "count=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus", this.getCount(), this.getMean() / 1000.0d, this.getValueAtPercentile(50) / 1000.0d, this.getValueAtPercentile(99) / 1000.0d, this.getValueAtPercentile(99.9) / 1000.0d, this.getMax() / 1000.0d);
+    }
+
+    private static int getIndex(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);  // >= SUB_BITS
+        int shift    = exponent - SUB_BITS + 1;
+        if (shift > MAX_BITS - SUB_BITS + 1) {
+            return NUM_BUCKETS - 1;
+        }
+
+        // value >>> shift is in [HALF_COUNT, SUB_COUNT)
+        return SUB_COUNT + (shift - 1) * HALF_COUNT + (int) (value >>> shift) - HALF_COUNT;
+    }
+
+    private static long getUpperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+
+        int shift = (index - SUB_COUNT) / HALF_COUNT + 1;
+        int sub   = (index - SUB_COUNT) % HALF_COUNT + HALF_COUNT;
+
+        return (((long) sub + 1) << shift) - 1;
+    }
+}
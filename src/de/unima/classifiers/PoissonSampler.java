@@ -0,0 +1,42 @@
+package de.unima.classifiers;
+
+/**
+ * Poisson distributed random values by inversion. The cumulative distribution is computed once, hence, drawing a value
+ * requires a single uniform random value and, for lambda = 1, less than two comparisons on average.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class PoissonSampler {
+    private double[] cdf;
+
+    public PoissonSampler(double lambda) {
+        double   p   = Math.exp(-lambda);
+        double   sum = p;
+        double[] tmp = new double[64];
+        int      k   = 0;
+
+        tmp[0] = sum;
+        while (k < tmp.length - 1 && sum < 1.0d - 1e-12) {
+            k++;
+            p *= lambda / k;
+            sum += p;
+            tmp[k] = sum;
+        }
+        tmp[k] = 1.0d;  // remaining probability mass
+
+        this.cdf = new double[k + 1];
+        System.arraycopy(tmp, 0, this.cdf, 0, this.cdf.length);
+    }
+
+    public int sample(RandomSource random) {
+        double u = random.nextDouble();
+        int    k = 0;
+
+        while (u >= this.cdf[k]) {
+            k++;
+        }
+
+        return k;
+    }
+}
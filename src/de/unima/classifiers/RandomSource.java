@@ -0,0 +1,30 @@
+package de.unima.classifiers;
+
+/**
+ * Interface for random number generators. Each tree of a forest receives its own stream, i.e., a generator is never
+ * shared between threads. Streams are derived from each other by {@link #split()}, hence, a single seed is sufficient
+ * to reproduce a complete run.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public interface RandomSource {
+    long nextLong();
+
+    // returns an independent generator, the state of this generator is advanced
+    RandomSource split();
+
+    // uniform in [0, 1)
+    default double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    default double nextDouble(double minRange, double maxRange) {
+        return minRange + (maxRange - minRange) * nextDouble();
+    }
+
+    // uniform in [0, bound)
+    default int nextInt(int bound) {
+        return (int) (nextDouble() * bound);
+    }
+}
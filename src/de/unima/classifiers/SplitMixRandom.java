@@ -0,0 +1,48 @@
+package de.unima.classifiers;
+
+/**
+ * SplitMix64 random number generator (Steele, Lea, and Flood; also used by java.util.SplittableRandom). The state is a
+ * single long value which is exposed to allow persisting and restoring a generator.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class SplitMixRandom implements RandomSource {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    public SplitMixRandom(long seed) {
+        this.state = seed;
+    }
+
+    // seed from system time, i.e., not reproducible
+    public SplitMixRandom() {
+        this(mix(System.currentTimeMillis()) ^ mix(System.nanoTime()));
+    }
+
+    @Override
+    public long nextLong() {
+        this.state += GOLDEN_GAMMA;
+        return mix(this.state);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplitMixRandom(nextLong());
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -4,13 +4,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * This class provides some basic functions, e.g., generating random values.
+ * This class provides some basic functions, e.g., generating random values. The classifiers draw their random values
+ * from a {@link RandomSource} per tree, the random functions of this class are not reproducible.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
 public class Utilities {
     public static int poisson(double A) {
@@ -58,16 +59,96 @@ public class Utilities {
         return sum;
     }
 
-    private static double randDouble() {
-        long tv_sec  = System.currentTimeMillis() / 1000L;
-        long tv_usec = System.nanoTime();
-        // long pid = Utilities.getPID();
-        // long uRandom = Utilities.getDevRandom();
+    public static double[] toDoubles(float[] values) {
+        double[] result = new double[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
 
-        Random random = new Random(tv_sec * tv_usec); // + pid + uRandom
-        //Random random = new Random();
+        return result;
+    }
 
-        return random.nextDouble();
+    public static float[] toFloats(double[] values) {
+        float[] result = new float[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (float) values[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * Sorts the keys in [from, to) in ascending order (as Double.compare) and moves the values with their keys, i.e.,
+     * sorts primitive (key, value) pairs without boxing. Quicksort with median-of-three pivots, short ranges are sorted
+     * by insertion.
+     */
+    public static void sort(double[] keys, int[] values, int from, int to) {
+        while (to - from > 16) {
+            int    mid   = (from + to) >>> 1;
+            double pivot = medianOfThree(keys[from], keys[mid], keys[to - 1]);
+            int    i     = from;
+            int    j     = to - 1;
+
+            while (i <= j) {
+                while (Double.compare(keys[i], pivot) < 0) {
+                    i++;
+                }
+                while (Double.compare(keys[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+
+            // recursion on the smaller part only
+            if (j + 1 - from < to - i) {
+                sort(keys, values, from, j + 1);
+                from = i;
+            } else {
+                sort(keys, values, i, to);
+                to = j + 1;
+            }
+        }
+
+        for (int i = from + 1; i < to; i++) {
+            double key   = keys[i];
+            int    value = values[i];
+            int    j     = i - 1;
+
+            for (; j >= from && Double.compare(keys[j], key) > 0; j--) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+            }
+
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        if (Double.compare(a, b) > 0) {
+            double tmp = a;
+            a = b;
+            b = tmp;
+        }
+
+        return Double.compare(c, a) <= 0 ? a : Double.compare(c, b) >= 0 ? b : c;
+    }
+
+    private static void swap(double[] keys, int[] values, int i, int j) {
+        double key   = keys[i];
+        int    value = values[i];
+        keys[i] = keys[j];
+        values[i] = values[j];
+        keys[j] = key;
+        values[j] = value;
+    }
+
+    private static double randDouble() {
+        return ThreadLocalRandom.current().nextDouble();
     }
 
     private static long getPID() {
@@ -104,9 +185,22 @@ public class Utilities {
         double[] result = new double[absolute.length];
 
         for (int i = 0; i < result.length; i++) {
-            result[i] = 1.0 - ((double) tree[i] / (double) absolute[i]);
+            result[i] = calcWeight(absolute[i], tree[i]);
         }
 
         return result;
     }
+
+    /**
+     * Weight of a tree for a class: 1 - (wrong out-of-bag predictions of the class by the tree / out-of-bag predictions
+     * of the class by all trees). A class that was never predicted out-of-bag has the weight 1. The counters may be read
+     * while they are updated, i.e., the errors of the tree are limited to the predictions and the weight is in [0, 1].
+     */
+    public static double calcWeight(int absolute, int tree) {
+        if (absolute <= 0) {
+            return 1.0;
+        }
+
+        return 1.0 - ((double) Math.min(tree, absolute) / (double) absolute);
+    }
 }
\ No newline at end of file
@@ -2,18 +2,16 @@ package de.unima.classifiers.dataset;
 
 import de.unima.classifiers.structure.Sample;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.*;
 
 /**
  * ARFF (Attribute-Relation File Format). This module enables to load arff files that should be used for training or
- * testing.
+ * testing. Files passed as FileInputStream are memory-mapped.
  * More: http://www.cs.waikato.ac.nz/ml/weka/arff.html
  *
  * @author Timo Sztyler
- * @version 19.01.2017
+ * @version 17.10.2026
  */
 public class ARFF implements DataSet {
     private List<Sample>         samples;
@@ -42,81 +40,55 @@ public class ARFF implements DataSet {
 
     @Override
     public void load(InputStream is) {
-        boolean flag = false;
-
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
-            for (String line; (line = br.readLine()) != null; ) {
-                if (line.length() == 0 || line.charAt(0) == '%') {
-                    continue;
-                }
-
-                if (line.toUpperCase().startsWith("@ATTRIBUTE")) {
-                    numOfFeatures++;
-                }
-
-                if (line.toUpperCase().startsWith("@ATTRIBUTE CLASS")) {
-                    String   classes   = line.substring(line.indexOf("{") + 1, line.lastIndexOf("}"));
-                    String[] fragments = classes.split(",");
-
-                    this.numOfClasses = fragments.length;
-                    for (String fragment : fragments) {
-                        this.classLabels.put(fragment.trim(), classLabels.size());
-                    }
-
-                    this.classIndex = numOfFeatures - 1;
-                    numOfFeatures--;
-                }
-
-                if (line.contains("@DATA")) {
-                    flag = true;
-                    this.numOfFeatures -= featureFilter.size();
-                    if (this.featureInvert) {
-                        this.numOfFeatures = featureFilter.size() - 1;
-                    }
+        this.load(is, (values, label, weight) -> this.samples.add(new Sample(values.clone(), label, weight, this.samples.size())));
+    }
 
-                    this.minFeatRange = new double[this.numOfFeatures];
-                    this.maxFeatRange = new double[this.numOfFeatures];
-                    continue;
-                }
+    // parses the header and passes the rows to the sink instead of creating samples
+    void load(InputStream is, Map<String, Integer> classLabels, RowSink sink) {
+        this.classLabels = classLabels;
+        this.load(is, sink);
+    }
 
-                if (!flag || line.length() == 0) {
-                    continue;
-                }
+    void load(InputStream is, RowSink sink) {
+        ARFFReader reader = null;
 
-                String[] data       = line.split(",");
-                double[] sampleData = new double[this.numOfFeatures];
-                int      classID    = -1;
-                int      cou        = 0;
+        try {
+            reader = new ARFFReader(is, this.classLabels, this.featureFilter, this.featureInvert);
+            reader.readHeader();
 
-                for (int i = 0; i < data.length; i++) {
-                    if ((this.featureFilter.contains(i) && !this.featureInvert) || (!this.featureFilter.contains(i) && this.featureInvert)) {
-                        continue;
-                    }
+            this.numOfClasses = reader.getNumOfClasses();
+            this.numOfFeatures = reader.getNumOfFeatures();
+            this.classIndex = reader.getClassIndex();
+            this.minFeatRange = new double[this.numOfFeatures];
+            this.maxFeatRange = new double[this.numOfFeatures];
 
-                    if (this.classIndex != i) {
-                        double value = Double.parseDouble(data[i]);
-                        sampleData[cou] = value;
-                    } else {
-                        classID = this.classLabels.get(data[i]);
-                        continue;
-                    }
+            double[] sampleData = new double[this.numOfFeatures];
+            int      numRows    = 0;
 
-                    if (this.minFeatRange[cou] > sampleData[cou] || this.samples.size() == 0) {
+            while (reader.next(sampleData)) {
+                for (int cou = 0; cou < this.numOfFeatures; cou++) {
+                    if (this.minFeatRange[cou] > sampleData[cou] || numRows == 0) {
                         this.minFeatRange[cou] = sampleData[cou];
                     }
 
-                    if (this.maxFeatRange[cou] < sampleData[cou] || this.samples.size() == 0) {
+                    if (this.maxFeatRange[cou] < sampleData[cou] || numRows == 0) {
                         this.maxFeatRange[cou] = sampleData[cou];
                     }
-
-                    cou++;
                 }
 
-                Sample sample = new Sample(sampleData, classID, 1.0, samples.size());
-                this.samples.add(sample);
+                sink.add(sampleData, reader.getLabel(), 1.0);
+                numRows++;
             }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
         }
     }
 
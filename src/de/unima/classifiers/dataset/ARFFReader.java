@@ -0,0 +1,317 @@
+package de.unima.classifiers.dataset;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Byte-level ARFF reader. The header is parsed once and translated into a map that assigns each column of a data line
+ * to a feature, the class, or nothing (filtered). Data lines are parsed directly from bytes, i.e., there are no strings
+ * per line or value. The lines are provided by {@link LineReader}.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class ARFFReader extends LineReader {
+    private static final int      SKIP        = -1;
+    private static final int      CLASS       = -2;
+    private static final double[] POW10       = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private int                  fieldEnd;
+    private Map<String, Integer> classLabels;
+    private Set<Integer>         featureFilter;
+    private boolean              featureInvert;
+    private int[]                columnMap;
+    private byte[][]             labelBytes;
+    private int[]                labelIds;
+    private int                  numOfClasses;
+    private int                  numOfFeatures;
+    private int                  classIndex;
+    private int                  label;
+
+    ARFFReader(InputStream is, Map<String, Integer> classLabels, Set<Integer> featureFilter, boolean featureInvert) throws IOException {
+        super(is);
+
+        this.classLabels = classLabels;
+        this.featureFilter = featureFilter;
+        this.featureInvert = featureInvert;
+    }
+
+    // parses everything up to and including the @DATA line
+    void readHeader() throws IOException {
+        int numAttributes = 0;
+        this.classIndex = -1;
+
+        while (this.readLine()) {
+            if (this.lineEnd == this.lineStart || this.data[this.lineStart] == '%') {
+                continue;
+            }
+
+            String header = new String(this.data, this.lineStart, this.lineEnd - this.lineStart, StandardCharsets.UTF_8);
+
+            if (header.toUpperCase().startsWith("@ATTRIBUTE")) {
+                numAttributes++;
+            }
+
+            if (header.toUpperCase().startsWith("@ATTRIBUTE CLASS")) {
+                String   classes   = header.substring(header.indexOf("{") + 1, header.lastIndexOf("}"));
+                String[] fragments = classes.split(",");
+
+                this.numOfClasses = fragments.length;
+                for (String fragment : fragments) {
+                    this.classLabels.put(fragment.trim(), this.classLabels.size());
+                }
+
+                this.classIndex = numAttributes - 1;
+            }
+
+            if (header.contains("@DATA")) {
+                break;
+            }
+        }
+
+        // assign columns
+        this.columnMap = new int[numAttributes];
+        for (int i = 0; i < numAttributes; i++) {
+            if (this.featureFilter.contains(i) != this.featureInvert) {
+                this.columnMap[i] = SKIP;
+            } else if (i == this.classIndex) {
+                this.columnMap[i] = CLASS;
+            } else {
+                this.columnMap[i] = this.numOfFeatures++;
+            }
+        }
+
+        this.labelBytes = new byte[this.classLabels.size()][];
+        this.labelIds = new int[this.classLabels.size()];
+        int nLabel = 0;
+        for (Map.Entry<String, Integer> entry : this.classLabels.entrySet()) {
+            this.labelBytes[nLabel] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            this.labelIds[nLabel] = entry.getValue();
+            nLabel++;
+        }
+    }
+
+    /**
+     * Parses the next data line into the passed array (length = number of features). Returns false if the end of the
+     * stream is reached. The class of the row is provided by {@link #getLabel()}.
+     */
+    boolean next(double[] values) throws IOException {
+        byte[] bytes = this.data;
+
+        while (this.readLine()) {
+            if (this.lineEnd == this.lineStart || bytes[this.lineStart] == '%') {
+                continue;
+            }
+
+            this.label = -1;
+
+            int col = 0;
+            int pos = this.lineStart;
+            while (pos <= this.lineEnd && col < this.columnMap.length) {
+                int target = this.columnMap[col];
+                int end;
+
+                if (target >= 0) {
+                    values[target] = this.parseField(pos);
+                    end = this.fieldEnd;
+                } else {
+                    end = pos;
+                    while (end < this.lineEnd && bytes[end] != ',') {
+                        end++;
+                    }
+
+                    if (target == CLASS) {
+                        this.label = this.findLabel(pos, end);
+                    }
+                }
+
+                pos = end + 1;
+                col++;
+            }
+
+            // missing values of short lines
+            for (; col < this.columnMap.length; col++) {
+                if (this.columnMap[col] >= 0) {
+                    values[this.columnMap[col]] = 0.0d;
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    int getLabel() {
+        return label;
+    }
+
+    int getNumOfClasses() {
+        return numOfClasses;
+    }
+
+    int getNumOfFeatures() {
+        return numOfFeatures;
+    }
+
+    int getClassIndex() {
+        return classIndex;
+    }
+
+    static double parseDouble(byte[] bytes, int from, int to) {
+        int start = from;
+        int end   = to;
+
+        while (start < end && bytes[start] <= ' ') {
+            start++;
+        }
+        while (end > start && bytes[end - 1] <= ' ') {
+            end--;
+        }
+
+        int     i        = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+
+        long    mantissa  = 0;
+        int     numDigits = 0;  // significant digits
+        int     exponent  = 0;
+        boolean digits    = false;
+        boolean exact     = true;
+
+        for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+            digits = true;
+            if (numDigits < 18) {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                numDigits += mantissa != 0 ? 1 : 0;
+            } else {
+                exponent++;
+                exact = false;
+            }
+        }
+
+        if (i < end && bytes[i] == '.') {
+            i++;
+            for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                digits = true;
+                if (numDigits < 18) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    numDigits += mantissa != 0 ? 1 : 0;
+                    exponent--;
+                } else {
+                    exact = false;
+                }
+            }
+        }
+
+        if (digits && i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExp = bytes[i] == '-';
+                i++;
+            }
+
+            int     exp       = 0;
+            boolean expDigits = false;
+            for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                expDigits = true;
+                exp = Math.min(exp * 10 + (bytes[i] - '0'), 100000);
+            }
+
+            digits = expDigits;
+            exponent += negativeExp ? -exp : exp;
+        }
+
+        // fast path: mantissa and power of ten are exact doubles, i.e., a single operation is correctly rounded
+        if (digits && i == end && exact && numDigits <= 15) {
+            double value;
+            if (mantissa == 0) {
+                value = 0.0d;
+            } else if (exponent >= 0 && exponent < POW10.length) {
+                value = mantissa * POW10[exponent];
+            } else if (exponent < 0 && -exponent < POW10.length) {
+                value = mantissa / POW10[-exponent];
+            } else {
+                return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+            }
+
+            return negative ? -value : value;
+        }
+
+        return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    // parses the numeric field starting at 'from' in one pass, 'fieldEnd' is set to the position of the next delimiter
+    private double parseField(int from) {
+        byte[] bytes = this.data;
+        int    end   = this.lineEnd;
+        int    i     = from;
+
+        boolean negative = i < end && bytes[i] == '-';
+        if (negative) {
+            i++;
+        }
+
+        long mantissa    = 0;
+        int  digitsStart = i;
+        int  fracDigits  = 0;
+        byte c;
+
+        while (i < end && (c = bytes[i]) >= '0' && c <= '9') {
+            mantissa = mantissa * 10 + (c - '0');
+            i++;
+        }
+        int numDigits = i - digitsStart;
+
+        if (i < end && bytes[i] == '.') {
+            int fracStart = ++i;
+            while (i < end && (c = bytes[i]) >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                i++;
+            }
+            fracDigits = i - fracStart;
+            numDigits += fracDigits;
+        }
+
+        // fast path: plain decimal number with at most 15 digits, i.e., the mantissa is exact
+        if ((i == end || bytes[i] == ',') && numDigits > 0 && numDigits <= 15) {
+            this.fieldEnd = i;
+            double value = fracDigits == 0 ? mantissa : mantissa / POW10[fracDigits];
+            return negative ? -value : value;
+        }
+
+        while (i < end && bytes[i] != ',') {
+            i++;
+        }
+        this.fieldEnd = i;
+
+        return parseDouble(bytes, from, i);
+    }
+
+    private int findLabel(int from, int to) {
+        for (int nLabel = 0; nLabel < this.labelBytes.length; nLabel++) {
+            byte[] bytes = this.labelBytes[nLabel];
+            if (bytes.length != to - from) {
+                continue;
+            }
+
+            int i = 0;
+            while (i < bytes.length && bytes[i] == this.data[from + i]) {
+                i++;
+            }
+
+            if (i == bytes.length) {
+                return this.labelIds[nLabel];
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown class label: " + new String(this.data, from, to - from, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,84 @@
+package de.unima.classifiers.dataset;
+
+import de.unima.classifiers.structure.Sample;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming ARFF source. The header is parsed when the source is created, the data lines are parsed on demand.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class ARFFSource implements SampleSource {
+    private ARFFReader           reader;
+    private Map<String, Integer> classLabels;
+    private Sample               next;
+    private int                  numOfSamples;
+
+    public ARFFSource(InputStream is) throws IOException {
+        this(is, new Integer[0], false);
+    }
+
+    public ARFFSource(InputStream is, Integer[] featureFilter, boolean invert) throws IOException {
+        this.classLabels = new HashMap<>();
+        this.reader = new ARFFReader(is, this.classLabels, new HashSet<>(Arrays.asList(featureFilter)), invert);
+        this.reader.readHeader();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next == null) {
+            double[] values = new double[this.reader.getNumOfFeatures()];
+
+            try {
+                if (this.reader.next(values)) {
+                    this.next = new Sample(values, this.reader.getLabel(), 1.0, this.numOfSamples++);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return this.next != null;
+    }
+
+    @Override
+    public Sample next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Sample sample = this.next;
+        this.next = null;
+
+        return sample;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    @Override
+    public int getNumOfClasses() {
+        return this.reader.getNumOfClasses();
+    }
+
+    @Override
+    public int getNumOfFeatures() {
+        return this.reader.getNumOfFeatures();
+    }
+
+    @Override
+    public Map<String, Integer> getClassLabels() {
+        return this.classLabels;
+    }
+}
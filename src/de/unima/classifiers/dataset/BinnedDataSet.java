@@ -0,0 +1,299 @@
+package de.unima.classifiers.dataset;
+
+import de.unima.classifiers.structure.Sample;
+
+import java.io.InputStream;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Binned Data Set. Quantizes each feature into at most 256 equal-width bins between its minimum and maximum value and
+ * keeps only the bin codes, i.e., one byte per value in one array per feature (at most Integer.MAX_VALUE - 8 rows).
+ * Bin b of a feature covers the values in (min + b / scale, min + (b + 1) / scale], the first bin also covers the
+ * minimum, values out of range are assigned to the first or last bin.
+ * <p>
+ * The rows are accessed through {@link BinnedRowView}s whose values are the bin codes, the feature ranges of the data
+ * set are ranges of codes as well. A forest that is trained on the codes has to be configured with 'binnedFeatures' and
+ * the same 'numBins' (checked by RandomForest(Config, DataSet)), its thresholds are then bin indices ({@link #getBoundary(int, int)} translates them into feature
+ * values). Data that is classified by such a forest has to be binned like the training data, i.e., by a data set that
+ * is created with the bins of the training set or by {@link #encode(Sample)}. Files are parsed as ARFF.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class BinnedDataSet implements DataSet {
+    private ARFF                 format;
+    private int                  numBins;
+    private double[]             binMin;        // minimum value per feature, null = not yet known
+    private double[]             binScale;      // bins per unit of the feature range, 0 = constant feature
+    private byte[][]             codes;         // codes[feature][row], unsigned
+    private int[]                labels;
+    private double[]             weights;
+    private int[]                order;
+    private int                  numOfRows;
+    private Map<String, Integer> classLabels;
+    private int                  numOfClasses;
+    private int                  numOfFeatures;
+    private double[]             minFeatRange;  // smallest code per feature
+    private double[]             maxFeatRange;  // largest code per feature
+
+    // the bins are derived from the value ranges of the loaded data
+    public BinnedDataSet(int numBins) {
+        if (numBins < 2 || numBins > 256) {
+            throw new IllegalArgumentException("Number of bins has to be in [2, 256]: " + numBins);
+        }
+
+        this.format = new ARFF();
+        this.classLabels = new HashMap<>();
+        this.numBins = numBins;
+        this.labels = new int[1024];
+        this.weights = new double[1024];
+        this.codes = new byte[0][];
+    }
+
+    // uses the bins of another data set, e.g., to bin a test set like the training set
+    public BinnedDataSet(BinnedDataSet bins) {
+        this(bins.numBins);
+
+        this.binMin = bins.binMin;
+        this.binScale = bins.binScale;
+    }
+
+    // bins the samples of an already loaded data set
+    public static BinnedDataSet of(DataSet ds, int numBins) {
+        BinnedDataSet binned = new BinnedDataSet(numBins);
+        binned.addAll(ds);
+
+        return binned;
+    }
+
+    public static BinnedDataSet of(DataSet ds, BinnedDataSet bins) {
+        BinnedDataSet binned = new BinnedDataSet(bins);
+        binned.addAll(ds);
+
+        return binned;
+    }
+
+    // with known bins, the rows are binned while they are parsed, otherwise the values are kept until the ranges are known
+    @Override
+    public void load(InputStream is) {
+        if (this.binMin != null) {
+            this.format.load(is, (values, label, weight) -> this.add(values, label, weight));
+            this.takeHeader(this.format);
+        } else {
+            ColumnarDataSet raw = new ColumnarDataSet(this.format, false);
+            raw.load(is);
+            this.addAll(raw);
+        }
+    }
+
+    @Override
+    public void load(InputStream is, Map<String, Integer> classLabels) {
+        if (this.binMin != null) {
+            this.format.load(is, classLabels, (values, label, weight) -> this.add(values, label, weight));
+            this.takeHeader(this.format);
+        } else {
+            ColumnarDataSet raw = new ColumnarDataSet(this.format, false);
+            raw.load(is, classLabels);
+            this.addAll(raw);
+        }
+    }
+
+    @Override
+    public void randomize() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = this.numOfRows - 1; i > 0; i--) {
+            int j   = random.nextInt(i + 1);
+            int tmp = this.order[i];
+            this.order[i] = this.order[j];
+            this.order[j] = tmp;
+        }
+    }
+
+    @Override
+    public void setFeatureFilter(Integer[] featureFilter, boolean invert) {
+        this.format.setFeatureFilter(featureFilter, invert);
+    }
+
+    /**
+     * Returns a view of all rows in the current order. Each access creates a new lightweight view, use
+     * {@link #getRow(int, BinnedRowView)} to iterate without creating objects (not for a forest with worker threads,
+     * see {@link BinnedRowView}).
+     */
+    @Override
+    public List<Sample> getSamples() {
+        return new AbstractList<Sample>() {
+            @Override
+            public Sample get(int index) {
+                return getRow(index, new BinnedRowView(BinnedDataSet.this));
+            }
+
+            @Override
+            public int size() {
+                return numOfRows;
+            }
+        };
+    }
+
+    // moves the passed view to the row at the given position of the current order
+    public BinnedRowView getRow(int index, BinnedRowView view) {
+        view.moveTo(this.order[index]);
+        return view;
+    }
+
+    public int getNumOfRows() {
+        return numOfRows;
+    }
+
+    public int getNumOfBins() {
+        return numBins;
+    }
+
+    public int getCode(int feature, double value) {
+        int bin = (int) Math.ceil((value - this.binMin[feature]) * this.binScale[feature]) - 1;
+        return Math.max(0, Math.min(bin, this.numBins - 1));
+    }
+
+    // largest feature value of the bin, i.e., a threshold on bin indices corresponds to this threshold on values
+    public double getBoundary(int feature, int bin) {
+        if (this.binScale[feature] == 0) {
+            return this.binMin[feature];
+        }
+
+        return this.binMin[feature] + (bin + 1) / this.binScale[feature];
+    }
+
+    // bins the values of a sample that is not part of the data set, e.g., to classify it
+    public Sample encode(Sample sample) {
+        double[] values = new double[this.binMin.length];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.getCode(i, sample.getValue(i));
+        }
+
+        return new Sample(values, sample.getLabel(), sample.getWeight(), sample.getId());
+    }
+
+    @Override
+    public int getNumOfClasses() {
+        return numOfClasses;
+    }
+
+    @Override
+    public int getNumOfFeatures() {
+        return numOfFeatures;
+    }
+
+    @Override
+    public double[] getMinFeatRange() {
+        return minFeatRange;
+    }
+
+    @Override
+    public double[] getMaxFeatRange() {
+        return maxFeatRange;
+    }
+
+    @Override
+    public String getLabel(int id) {
+        for (String key : classLabels.keySet()) {
+            if (classLabels.get(key) == id) {
+                return key;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public Map<String, Integer> getClassLabels() {
+        return this.classLabels;
+    }
+
+    int getRowCode(int row, int index) {
+        return this.codes[index][row] & 0xFF;
+    }
+
+    int getRowLabel(int row) {
+        return this.labels[row];
+    }
+
+    double getRowWeight(int row) {
+        return this.weights[row];
+    }
+
+    private void addAll(DataSet ds) {
+        if (this.binMin == null) {
+            this.binMin = ds.getMinFeatRange().clone();
+            this.binScale = new double[ds.getNumOfFeatures()];
+
+            for (int i = 0; i < this.binScale.length; i++) {
+                double range = ds.getMaxFeatRange()[i] - ds.getMinFeatRange()[i];
+                this.binScale[i] = range > 0 ? this.numBins / range : 0.0d;
+            }
+        }
+
+        double[] values = new double[ds.getNumOfFeatures()];
+        for (Sample sample : ds.getSamples()) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = sample.getValue(i);
+            }
+            this.add(values, sample.getLabel(), sample.getWeight());
+        }
+        this.takeHeader(ds);
+    }
+
+    private void add(double[] values, int label, double weight) {
+        if (this.numOfRows == 0) {
+            this.numOfFeatures = values.length;
+            this.codes = new byte[this.numOfFeatures][this.labels.length];
+        }
+
+        // grow by 50%
+        if (this.numOfRows == this.labels.length) {
+            int capacity = ColumnarDataSet.grow(this.labels.length);
+
+            for (int i = 0; i < this.numOfFeatures; i++) {
+                this.codes[i] = Arrays.copyOf(this.codes[i], capacity);
+            }
+            this.labels = Arrays.copyOf(this.labels, capacity);
+            this.weights = Arrays.copyOf(this.weights, capacity);
+        }
+
+        int row = this.numOfRows;
+        for (int i = 0; i < this.numOfFeatures; i++) {
+            this.codes[i][row] = (byte) this.getCode(i, values[i]);
+        }
+        this.labels[row] = label;
+        this.weights[row] = weight;
+        this.numOfRows++;
+    }
+
+    // the feature ranges are the ranges of the codes
+    private void takeHeader(DataSet ds) {
+        this.classLabels = ds.getClassLabels();
+        this.numOfClasses = ds.getNumOfClasses();
+        this.numOfFeatures = ds.getNumOfFeatures();
+        this.minFeatRange = new double[this.numOfFeatures];
+        this.maxFeatRange = new double[this.numOfFeatures];
+        Arrays.fill(this.minFeatRange, this.numOfRows > 0 ? this.numBins - 1 : 0);
+
+        for (int i = 0; i < this.numOfFeatures; i++) {
+            for (int row = 0; row < this.numOfRows; row++) {
+                int code = this.getRowCode(row, i);
+                this.minFeatRange[i] = Math.min(this.minFeatRange[i], code);
+                this.maxFeatRange[i] = Math.max(this.maxFeatRange[i], code);
+            }
+        }
+
+        this.order = new int[this.numOfRows];
+        for (int i = 0; i < this.numOfRows; i++) {
+            this.order[i] = i;
+        }
+    }
+}
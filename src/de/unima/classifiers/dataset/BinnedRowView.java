@@ -0,0 +1,63 @@
+package de.unima.classifiers.dataset;
+
+import de.unima.classifiers.structure.Sample;
+
+/**
+ * Binned Row View. Lightweight sample that reads the bin codes of a row of a {@link BinnedDataSet}, i.e., its values
+ * are integers in [0, numBins). A view can be moved to another row, i.e., a single view is sufficient to pass all rows
+ * to a classifier that has finished with a sample when its method returns. Like a {@link RowView}, a single view must
+ * not be reused for a forest with worker threads ('numThreads' > 1), such a forest needs a view per row (e.g., from
+ * {@link BinnedDataSet#getSamples()}) or a copy.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class BinnedRowView extends Sample {
+    private BinnedDataSet ds;
+    private int           row;
+
+    public BinnedRowView(BinnedDataSet ds) {
+        this.ds = ds;
+    }
+
+    void moveTo(int row) {
+        this.row = row;
+    }
+
+    @Override
+    public double getValue(int index) {
+        return this.ds.getRowCode(this.row, index);
+    }
+
+    @Override
+    public int getNumOfValues() {
+        return this.ds.getNumOfFeatures();
+    }
+
+    // copy of the bin codes
+    @Override
+    public double[] getValues() {
+        double[] values = new double[this.ds.getNumOfFeatures()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.ds.getRowCode(this.row, i);
+        }
+
+        return values;
+    }
+
+    @Override
+    public int getLabel() {
+        return this.ds.getRowLabel(this.row);
+    }
+
+    @Override
+    public double getWeight() {
+        return this.ds.getRowWeight(this.row);
+    }
+
+    @Override
+    public int getId() {
+        return row;
+    }
+}
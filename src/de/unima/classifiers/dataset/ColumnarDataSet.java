@@ -0,0 +1,243 @@
+package de.unima.classifiers.dataset;
+
+import de.unima.classifiers.structure.Sample;
+
+import java.io.InputStream;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Columnar Data Set. Keeps the values of each feature in one contiguous primitive array, labels and weights in primitive
+ * arrays as well, i.e., there is no object per sample and the number of rows is only limited by the maximum array
+ * length. The rows are accessed through {@link RowView}s which can be reused while iterating over the data set (but
+ * not to train a forest with worker threads, see {@link RowView}). Randomizing only shuffles the order of the rows, the
+ * data is not moved. Files are parsed as ARFF. In single-precision mode, the feature values are stored as float, i.e.,
+ * half the memory.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class ColumnarDataSet implements DataSet {
+    static final int MAX_ROWS = Integer.MAX_VALUE - 8;  // largest array length that is supported by all VMs
+
+    private ARFF                 format;
+    private boolean              singlePrecision;
+    private double[][]           values;        // one array per feature
+    private float[][]            floatValues;   // instead of values in single-precision mode
+    private int[]                labels;
+    private double[]             weights;
+    private int[]                order;
+    private int                  numOfRows;
+    private Map<String, Integer> classLabels;
+    private int                  numOfClasses;
+    private int                  numOfFeatures;
+    private double[]             minFeatRange;
+    private double[]             maxFeatRange;
+
+    public ColumnarDataSet() {
+        this(false);
+    }
+
+    public ColumnarDataSet(boolean singlePrecision) {
+        this(new ARFF(), singlePrecision);
+    }
+
+    // parses with the passed format, e.g., to share its feature filter
+    ColumnarDataSet(ARFF format, boolean singlePrecision) {
+        this.format = format;
+        this.singlePrecision = singlePrecision;
+        this.classLabels = new HashMap<>();
+        this.labels = new int[1024];
+        this.weights = new double[1024];
+    }
+
+    // copies the samples of an already loaded data set
+    public static ColumnarDataSet of(DataSet ds) {
+        return of(ds, false);
+    }
+
+    public static ColumnarDataSet of(DataSet ds, boolean singlePrecision) {
+        ColumnarDataSet columnar = new ColumnarDataSet(singlePrecision);
+
+        for (Sample sample : ds.getSamples()) {
+            columnar.add(sample.getValues(), sample.getLabel(), sample.getWeight());
+        }
+        columnar.takeHeader(ds);
+
+        return columnar;
+    }
+
+    @Override
+    public void load(InputStream is) {
+        this.format.load(is, (values, label, weight) -> this.add(values, label, weight));
+        this.takeHeader(this.format);
+    }
+
+    @Override
+    public void load(InputStream is, Map<String, Integer> classLabels) {
+        this.format.load(is, classLabels, (values, label, weight) -> this.add(values, label, weight));
+        this.takeHeader(this.format);
+    }
+
+    @Override
+    public void randomize() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = this.numOfRows - 1; i > 0; i--) {
+            int j   = random.nextInt(i + 1);
+            int tmp = this.order[i];
+            this.order[i] = this.order[j];
+            this.order[j] = tmp;
+        }
+    }
+
+    @Override
+    public void setFeatureFilter(Integer[] featureFilter, boolean invert) {
+        this.format.setFeatureFilter(featureFilter, invert);
+    }
+
+    /**
+     * Returns a view of all rows in the current order. Each access creates a new lightweight view, use
+     * {@link #getRow(int, RowView)} to iterate without creating objects.
+     */
+    @Override
+    public List<Sample> getSamples() {
+        return new AbstractList<Sample>() {
+            @Override
+            public Sample get(int index) {
+                return getRow(index, new RowView(ColumnarDataSet.this));
+            }
+
+            @Override
+            public int size() {
+                return numOfRows;
+            }
+        };
+    }
+
+    // moves the passed view to the row at the given position of the current order, i.e., the view is changed
+    public RowView getRow(int index, RowView view) {
+        view.moveTo(this.order[index]);
+        return view;
+    }
+
+    public int getNumOfRows() {
+        return numOfRows;
+    }
+
+    @Override
+    public int getNumOfClasses() {
+        return numOfClasses;
+    }
+
+    @Override
+    public int getNumOfFeatures() {
+        return numOfFeatures;
+    }
+
+    @Override
+    public double[] getMinFeatRange() {
+        return minFeatRange;
+    }
+
+    @Override
+    public double[] getMaxFeatRange() {
+        return maxFeatRange;
+    }
+
+    @Override
+    public String getLabel(int id) {
+        for (String key : classLabels.keySet()) {
+            if (classLabels.get(key) == id) {
+                return key;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public Map<String, Integer> getClassLabels() {
+        return this.classLabels;
+    }
+
+    double getRowValue(int row, int index) {
+        if (this.floatValues != null) {
+            return this.floatValues[index][row];
+        }
+
+        return this.values[index][row];
+    }
+
+    int getRowLabel(int row) {
+        return this.labels[row];
+    }
+
+    double getRowWeight(int row) {
+        return this.weights[row];
+    }
+
+    private void add(double[] values, int label, double weight) {
+        if (this.numOfRows == 0) {
+            this.numOfFeatures = values.length;
+            if (this.singlePrecision) {
+                this.floatValues = new float[this.numOfFeatures][this.labels.length];
+            } else {
+                this.values = new double[this.numOfFeatures][this.labels.length];
+            }
+        }
+
+        // grow by 50%
+        if (this.numOfRows == this.labels.length) {
+            int capacity = grow(this.labels.length);
+
+            for (int i = 0; i < this.numOfFeatures; i++) {
+                if (this.singlePrecision) {
+                    this.floatValues[i] = Arrays.copyOf(this.floatValues[i], capacity);
+                } else {
+                    this.values[i] = Arrays.copyOf(this.values[i], capacity);
+                }
+            }
+            this.labels = Arrays.copyOf(this.labels, capacity);
+            this.weights = Arrays.copyOf(this.weights, capacity);
+        }
+
+        int row = this.numOfRows;
+        for (int i = 0; i < this.numOfFeatures; i++) {
+            if (this.singlePrecision) {
+                this.floatValues[i][row] = (float) values[i];
+            } else {
+                this.values[i][row] = values[i];
+            }
+        }
+        this.labels[row] = label;
+        this.weights[row] = weight;
+        this.numOfRows++;
+    }
+
+    // capacity that is 50% larger than the passed one, at most MAX_ROWS
+    static int grow(int capacity) {
+        if (capacity >= MAX_ROWS) {
+            throw new IllegalStateException("A data set holds at most " + MAX_ROWS + " rows");
+        }
+
+        return (int) Math.min(MAX_ROWS, capacity + (capacity >> 1) + 1L);
+    }
+
+    private void takeHeader(DataSet ds) {
+        this.classLabels = ds.getClassLabels();
+        this.numOfClasses = ds.getNumOfClasses();
+        this.numOfFeatures = ds.getNumOfFeatures();
+        this.minFeatRange = ds.getMinFeatRange();
+        this.maxFeatRange = ds.getMaxFeatRange();
+
+        this.order = new int[this.numOfRows];
+        for (int i = 0; i < this.numOfRows; i++) {
+            this.order[i] = i;
+        }
+    }
+}
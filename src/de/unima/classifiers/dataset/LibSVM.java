@@ -0,0 +1,442 @@
+package de.unima.classifiers.dataset;
+
+import de.unima.classifiers.Utilities;
+import de.unima.classifiers.structure.Sample;
+import de.unima.classifiers.structure.SparseSample;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * LibSVM. This module enables to load sparse LibSVM files ("label index:value ...", indices start at 1) that should be
+ * used for training or testing. The samples are {@link SparseSample}s, i.e., only the non-zero values are kept and the
+ * memory depends on the number of non-zero values instead of the number of features.
+ * <p>
+ * The first line may be the header written by {@link ARFF#toLibSVM()} ("samples features classes 1"); the labels are
+ * then the class ids. Without header, the number of features is the largest index and the labels are assigned to class
+ * ids in the order of their first occurrence. To load a test set with the same class ids as the training set, pass the
+ * class labels of the training set. The feature filter refers to zero-based feature indices. In single-precision mode,
+ * the non-zero values are stored as float.
+ * More: https://www.csie.ntu.edu.tw/~cjlin/libsvm/
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class LibSVM implements DataSet {
+    private List<Sample>         samples;
+    private Map<String, Integer> classLabels;
+    private int                  numOfClasses;
+    private int                  numOfFeatures;
+    private Set<Integer>         featureFilter;
+    private boolean              featureInvert;
+    private boolean              singlePrecision;
+    private double[]             minFeatRange;
+    private double[]             maxFeatRange;
+    private byte[][]             labelBytes;    // labels seen while loading, in the order of their first occurrence
+    private int[]                labelIds;
+    private int                  numOfLabels;
+
+    public LibSVM() {
+        this.samples = new ArrayList<>();
+        this.classLabels = new HashMap<>();
+        this.labelBytes = new byte[16][];
+        this.labelIds = new int[16];
+
+        this.featureFilter = new HashSet<>();
+        this.featureInvert = false;
+    }
+
+    @Override
+    public void load(InputStream is, Map<String, Integer> classLabels) {
+        this.classLabels = classLabels;
+        this.load(is);
+    }
+
+    /**
+     * Parses the file byte by byte (see {@link LineReader}), the rows are collected in compressed sparse row arrays.
+     * Malformed lines (tokens other than index:value with index >= 1 or qid:n, class ids outside the header's range) and
+     * duplicate feature indices are rejected with an {@link IllegalArgumentException} that names the line, I/O errors
+     * are thrown as {@link UncheckedIOException}.
+     */
+    @Override
+    public void load(InputStream is) {
+        int[]      rowStart  = new int[1025];   // row i = [rowStart[i], rowStart[i + 1])
+        int[]      rowLabels = new int[1024];
+        int[]      indices   = new int[1 << 16];
+        double[]   values    = new double[1 << 16];
+        int        numOfRows = 0;
+        int        numValues = 0;
+        boolean    hasHeader = false;
+        int        maxIndex  = -1;
+        int        nLine     = 0;
+        LineReader reader    = null;
+
+        this.numOfLabels = 0;   // the class labels may have been replaced
+        try {
+            reader = new LineReader(is);
+
+            while (reader.readLine()) {
+                byte[] bytes   = reader.data;
+                int    lineEnd = reader.lineEnd;
+                int    pos     = skipSpaces(bytes, reader.lineStart, lineEnd);
+                nLine++;
+                if (pos == lineEnd) {
+                    continue;
+                }
+
+                // header of ARFF.toLibSVM: samples features classes 1
+                if (numOfRows == 0 && !hasHeader && indexOf(bytes, pos, lineEnd, (byte) ':') < 0 && countTokens(bytes, pos, lineEnd) == 4) {
+                    int end = skipToken(bytes, pos, lineEnd);
+                    pos = skipSpaces(bytes, end, lineEnd);
+                    end = skipToken(bytes, pos, lineEnd);
+                    this.numOfFeatures = parseHeaderValue(bytes, pos, end, nLine);
+                    pos = skipSpaces(bytes, end, lineEnd);
+                    end = skipToken(bytes, pos, lineEnd);
+                    this.numOfClasses = parseHeaderValue(bytes, pos, end, nLine);
+                    hasHeader = true;
+                    continue;
+                }
+
+                if (numOfRows == rowLabels.length) {
+                    rowLabels = Arrays.copyOf(rowLabels, 2 * numOfRows);
+                    rowStart = Arrays.copyOf(rowStart, 2 * numOfRows + 1);
+                }
+
+                int end = skipToken(bytes, pos, lineEnd);
+                rowLabels[numOfRows] = this.findClassId(bytes, pos, end, hasHeader, nLine);
+
+                int     first     = numValues;
+                boolean ascending = true;
+                for (pos = skipSpaces(bytes, end, lineEnd); pos < lineEnd; pos = skipSpaces(bytes, end, lineEnd)) {
+                    end = skipToken(bytes, pos, lineEnd);
+
+                    int colon = indexOf(bytes, pos, end, (byte) ':');
+                    int index = colon >= 0 ? parseIndex(bytes, pos, colon) : -1;
+                    if (index < 1) {
+                        if (isQueryId(bytes, pos, end)) {
+                            continue;
+                        }
+                        throw new IllegalArgumentException("Invalid feature '" + new String(bytes, pos, end - pos, StandardCharsets.ISO_8859_1) + "' in line " + nLine + ", expected: index:value with index >= 1");
+                    }
+
+                    double value;
+                    try {
+                        value = ARFFReader.parseDouble(bytes, colon + 1, end);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid value of feature " + index + " in line " + nLine, e);
+                    }
+
+                    if (value == 0) {
+                        continue;
+                    }
+
+                    if (numValues == indices.length) {
+                        indices = Arrays.copyOf(indices, 2 * numValues);
+                        values = Arrays.copyOf(values, 2 * numValues);
+                    }
+
+                    // the indices are stored zero-based
+                    ascending &= numValues == first || index - 1 > indices[numValues - 1];
+                    indices[numValues] = index - 1;
+                    values[numValues] = value;
+                    numValues++;
+                    maxIndex = Math.max(maxIndex, index - 1);
+                }
+
+                if (!ascending) {
+                    sort(indices, values, first, numValues);
+                    for (int i = first + 1; i < numValues; i++) {
+                        if (indices[i] == indices[i - 1]) {
+                            throw new IllegalArgumentException("Duplicate feature index " + (indices[i] + 1) + " in line " + nLine);
+                        }
+                    }
+                }
+
+                numOfRows++;
+                rowStart[numOfRows] = numValues;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        if (!hasHeader) {
+            this.numOfFeatures = maxIndex + 1;
+            this.numOfClasses = this.classLabels.size();
+        }
+
+        this.createSamples(rowStart, rowLabels, numOfRows, indices, values, Math.max(this.numOfFeatures, maxIndex + 1));
+    }
+
+    // applies the feature filter and determines the value ranges including the implicit zeros
+    private void createSamples(int[] rowStart, int[] rowLabels, int numOfRows, int[] indices, double[] values, int numOfColumns) {
+        int[] columnMap = new int[numOfColumns];
+        int   numKept   = 0;
+        for (int i = 0; i < numOfColumns; i++) {
+            boolean skip = this.featureFilter.contains(i) != this.featureInvert || i >= this.numOfFeatures;
+            columnMap[i] = skip ? -1 : numKept++;
+        }
+
+        this.numOfFeatures = numKept;
+        this.minFeatRange = new double[numKept];
+        this.maxFeatRange = new double[numKept];
+        int[] numOfNonZeros = new int[numKept];
+
+        for (int nRow = 0; nRow < numOfRows; nRow++) {
+            int from = rowStart[nRow];
+            int to   = rowStart[nRow + 1];
+            int num  = 0;
+
+            for (int i = from; i < to; i++) {
+                num += columnMap[indices[i]] >= 0 ? 1 : 0;
+            }
+
+            int[]    rowIndex = new int[num];
+            double[] rowValue = new double[num];
+            num = 0;
+
+            for (int i = from; i < to; i++) {
+                int    column = columnMap[indices[i]];
+                double value  = values[i];
+                if (column < 0) {
+                    continue;
+                }
+
+                rowIndex[num] = column;
+                rowValue[num] = value;
+                num++;
+
+                if (this.minFeatRange[column] > value || numOfNonZeros[column] == 0) {
+                    this.minFeatRange[column] = value;
+                }
+
+                if (this.maxFeatRange[column] < value || numOfNonZeros[column] == 0) {
+                    this.maxFeatRange[column] = value;
+                }
+                numOfNonZeros[column]++;
+            }
+
+            if (this.singlePrecision) {
+                this.samples.add(new SparseSample(rowIndex, Utilities.toFloats(rowValue), numKept, rowLabels[nRow], 1.0, this.samples.size()));
+            } else {
+                this.samples.add(new SparseSample(rowIndex, rowValue, numKept, rowLabels[nRow], 1.0, this.samples.size()));
+            }
+        }
+
+        // features that are missing in at least one sample are zero in this sample
+        for (int i = 0; i < numKept; i++) {
+            if (numOfNonZeros[i] < numOfRows) {
+                this.minFeatRange[i] = Math.min(this.minFeatRange[i], 0.0d);
+                this.maxFeatRange[i] = Math.max(this.maxFeatRange[i], 0.0d);
+            }
+        }
+    }
+
+    // the labels seen so far are compared as bytes, i.e., a string is only created for the first occurrence of a label
+    private int findClassId(byte[] bytes, int from, int to, boolean hasHeader, int nLine) {
+        for (int nLabel = 0; nLabel < this.numOfLabels; nLabel++) {
+            byte[] label = this.labelBytes[nLabel];
+            if (label.length != to - from) {
+                continue;
+            }
+
+            int i = 0;
+            while (i < label.length && label[i] == bytes[from + i]) {
+                i++;
+            }
+
+            if (i == label.length) {
+                return this.labelIds[nLabel];
+            }
+        }
+
+        String label = new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        int    id    = this.getClassId(label, hasHeader, nLine);
+
+        if (this.numOfLabels == this.labelBytes.length) {
+            this.labelBytes = Arrays.copyOf(this.labelBytes, 2 * this.numOfLabels);
+            this.labelIds = Arrays.copyOf(this.labelIds, 2 * this.numOfLabels);
+        }
+        this.labelBytes[this.numOfLabels] = Arrays.copyOfRange(bytes, from, to);
+        this.labelIds[this.numOfLabels] = id;
+        this.numOfLabels++;
+
+        return id;
+    }
+
+    // with header, the labels are the class ids, i.e., they have to be in [0, numOfClasses)
+    private int getClassId(String label, boolean hasHeader, int nLine) {
+        Integer id = this.classLabels.get(label);
+
+        if (id == null && hasHeader) {
+            try {
+                id = Integer.parseInt(label);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid class id '" + label + "' in line " + nLine, e);
+            }
+        } else if (id == null) {
+            id = this.classLabels.size();
+        }
+
+        if (hasHeader && (id < 0 || id >= this.numOfClasses)) {
+            throw new IllegalArgumentException("Class id " + id + " in line " + nLine + " is not in [0, " + this.numOfClasses + ")");
+        }
+        this.classLabels.put(label, id);
+
+        return id;
+    }
+
+    private static int parseHeaderValue(byte[] bytes, int from, int to, int nLine) {
+        int value = parseIndex(bytes, from, to);
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid header in line " + nLine + ", expected: samples features classes 1");
+        }
+
+        return value;
+    }
+
+    private static int skipSpaces(byte[] bytes, int pos, int end) {
+        while (pos < end && bytes[pos] <= ' ') {
+            pos++;
+        }
+
+        return pos;
+    }
+
+    private static int skipToken(byte[] bytes, int pos, int end) {
+        while (pos < end && bytes[pos] > ' ') {
+            pos++;
+        }
+
+        return pos;
+    }
+
+    private static int countTokens(byte[] bytes, int pos, int end) {
+        int num = 0;
+        for (pos = skipSpaces(bytes, pos, end); pos < end; pos = skipSpaces(bytes, pos, end)) {
+            pos = skipToken(bytes, pos, end);
+            num++;
+        }
+
+        return num;
+    }
+
+    // query id of ranking data (qid:n), it is not a feature
+    private static boolean isQueryId(byte[] bytes, int from, int to) {
+        return to - from > 4 && bytes[from] == 'q' && bytes[from + 1] == 'i' && bytes[from + 2] == 'd' && bytes[from + 3] == ':';
+    }
+
+    // position of the byte in [from, to), -1 if it is missing
+    private static int indexOf(byte[] bytes, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    // one-based index, -1 if the token is not an index
+    private static int parseIndex(byte[] bytes, int from, int to) {
+        if (from == to || to - from > 9) {
+            return -1;
+        }
+
+        int index = 0;
+        for (int i = from; i < to; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') {
+                return -1;
+            }
+            index = index * 10 + (bytes[i] - '0');
+        }
+
+        return index;
+    }
+
+    // insertion sort of [from, to) by index, the rows of LibSVM files are usually sorted already
+    private static void sort(int[] indices, double[] values, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int    index = indices[i];
+            double value = values[i];
+            int    j     = i - 1;
+
+            for (; j >= from && indices[j] > index; j--) {
+                indices[j + 1] = indices[j];
+                values[j + 1] = values[j];
+            }
+
+            indices[j + 1] = index;
+            values[j + 1] = value;
+        }
+    }
+
+    @Override
+    public String getLabel(int id) {
+        for (String key : classLabels.keySet()) {
+            if (classLabels.get(key) == id) {
+                return key;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void randomize() {
+        Collections.shuffle(this.samples);
+        Collections.shuffle(this.samples);
+        Collections.shuffle(this.samples);
+    }
+
+    @Override
+    public void setFeatureFilter(Integer[] featureFilter, boolean invert) {
+        this.featureFilter = new HashSet<>(Arrays.asList(featureFilter));
+        this.featureInvert = invert;
+    }
+
+    // has to be set before loading
+    public void setSinglePrecision(boolean singlePrecision) {
+        this.singlePrecision = singlePrecision;
+    }
+
+    @Override
+    public List<Sample> getSamples() {
+        return samples;
+    }
+
+    @Override
+    public int getNumOfClasses() {
+        return numOfClasses;
+    }
+
+    @Override
+    public int getNumOfFeatures() {
+        return numOfFeatures;
+    }
+
+    @Override
+    public double[] getMinFeatRange() {
+        return minFeatRange;
+    }
+
+    @Override
+    public double[] getMaxFeatRange() {
+        return maxFeatRange;
+    }
+
+    @Override
+    public Map<String, Integer> getClassLabels() {
+        return this.classLabels;
+    }
+}
@@ -0,0 +1,122 @@
+package de.unima.classifiers.dataset;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Byte-level line reader of the text formats. Files are memory-mapped window by window and copied in large blocks into
+ * a reusable buffer, any other stream is read into this buffer directly. The current line is data[lineStart, lineEnd),
+ * i.e., the lines are parsed in place without creating strings.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class LineReader {
+    private static final long WINDOW_SIZE = 1L << 28;   // 256 MB per mapping
+    private static final int  BUFFER_SIZE = 1 << 20;
+
+    private InputStream stream;
+    private FileChannel file;
+    private long        filePos;
+    private ByteBuffer  window;
+    private int         pos;
+    private int         limit;
+    private boolean     eof;
+    byte[]              data;
+    int                 lineStart;
+    int                 lineEnd;
+
+    LineReader(InputStream is) throws IOException {
+        this.data = new byte[BUFFER_SIZE];
+
+        if (is instanceof FileInputStream) {
+            this.file = ((FileInputStream) is).getChannel();
+            this.filePos = this.file.position();
+        } else {
+            this.stream = is;
+        }
+    }
+
+    void close() throws IOException {
+        if (this.file != null) {
+            this.file.close();
+        } else {
+            this.stream.close();
+        }
+    }
+
+    // moves to the next line, i.e., sets 'lineStart' and 'lineEnd' (without line break), false at the end of the stream
+    boolean readLine() throws IOException {
+        int end = this.pos;
+
+        while (true) {
+            while (end < this.limit && this.data[end] != '\n') {
+                end++;
+            }
+
+            if (end < this.limit || (this.eof && end > this.pos)) {
+                break;  // complete line or last line without line break
+            }
+
+            if (this.eof) {
+                return false;
+            }
+
+            // move the incomplete line to the front and read more bytes
+            int length = this.limit - this.pos;
+            if (length == this.data.length) {
+                this.data = Arrays.copyOf(this.data, this.data.length * 2);
+            }
+            System.arraycopy(this.data, this.pos, this.data, 0, length);
+            this.pos = 0;
+            this.limit = length;
+            end = length;
+            this.fill();
+        }
+
+        this.lineStart = this.pos;
+        this.lineEnd = end;
+        this.pos = Math.min(end + 1, this.limit);
+
+        if (this.lineEnd > this.lineStart && this.data[this.lineEnd - 1] == '\r') {
+            this.lineEnd--;
+        }
+
+        return true;
+    }
+
+    // appends bytes to the buffer, copies from the current mapped window of a file or reads from the stream
+    private void fill() throws IOException {
+        int space = this.data.length - this.limit;
+
+        if (this.file == null) {
+            int read = this.stream.read(this.data, this.limit, space);
+            if (read < 0) {
+                this.eof = true;
+            } else {
+                this.limit += read;
+            }
+            return;
+        }
+
+        if (this.window == null || !this.window.hasRemaining()) {
+            long size = this.file.size();
+            if (this.filePos >= size) {
+                this.eof = true;
+                return;
+            }
+
+            long length = Math.min(WINDOW_SIZE, size - this.filePos);
+            this.window = this.file.map(FileChannel.MapMode.READ_ONLY, this.filePos, length);
+            this.filePos += length;
+        }
+
+        int length = Math.min(space, this.window.remaining());
+        this.window.get(this.data, this.limit, length);
+        this.limit += length;
+    }
+}
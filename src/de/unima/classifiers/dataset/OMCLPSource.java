@@ -0,0 +1,119 @@
+package de.unima.classifiers.dataset;
+
+import de.unima.classifiers.structure.Sample;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Streaming OMCLP source. The data (.structure) and the labels (.labels) are read line by line in parallel. As the
+ * labels are not read in advance, all class labels have to be known when the source is created.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class OMCLPSource implements SampleSource {
+    private BufferedReader       data;
+    private BufferedReader       labels;
+    private Map<String, Integer> classLabels;
+    private Set<Integer>         featureFilter;
+    private int                  numOfFeatures;
+    private Sample               next;
+    private int                  numOfSamples;
+
+    public OMCLPSource(InputStream data, InputStream labels, Map<String, Integer> classLabels) throws IOException {
+        this(data, labels, classLabels, new Integer[0]);
+    }
+
+    public OMCLPSource(InputStream data, InputStream labels, Map<String, Integer> classLabels, Integer[] featureFilter) throws IOException {
+        this.data = new BufferedReader(new InputStreamReader(data));
+        this.labels = new BufferedReader(new InputStreamReader(labels));
+        this.classLabels = classLabels;
+        this.featureFilter = new HashSet<>(Arrays.asList(featureFilter));
+
+        // headers: "numSamples numFeatures" and "numSamples 1"
+        String[] fragments = this.data.readLine().trim().split(" ");
+        this.numOfFeatures = Integer.parseInt(fragments[1]) - this.featureFilter.size();
+        this.labels.readLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next != null) {
+            return true;
+        }
+
+        try {
+            String line  = this.data.readLine();
+            String label = this.labels.readLine();
+            if (line == null || label == null) {
+                return false;
+            }
+
+            Integer classID = this.classLabels.get(label.trim());
+            if (classID == null) {
+                throw new IllegalArgumentException("Unknown class label: " + label.trim());
+            }
+
+            String[] fragments  = line.trim().split(" ");
+            double[] sampleData = new double[this.numOfFeatures];
+            int      cou        = 0;
+
+            for (int i = 0; i < fragments.length; i++) {
+                if (this.featureFilter.contains(i)) {
+                    continue;
+                }
+
+                sampleData[cou] = Double.parseDouble(fragments[i]);
+                cou++;
+            }
+
+            this.next = new Sample(sampleData, classID, 1.0, this.numOfSamples++);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return true;
+    }
+
+    @Override
+    public Sample next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Sample sample = this.next;
+        this.next = null;
+
+        return sample;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.data.close();
+        this.labels.close();
+    }
+
+    @Override
+    public int getNumOfClasses() {
+        return this.classLabels.size();
+    }
+
+    @Override
+    public int getNumOfFeatures() {
+        return this.numOfFeatures;
+    }
+
+    @Override
+    public Map<String, Integer> getClassLabels() {
+        return this.classLabels;
+    }
+}
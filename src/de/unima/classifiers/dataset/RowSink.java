@@ -0,0 +1,12 @@
+package de.unima.classifiers.dataset;
+
+/**
+ * Receives the rows of a data set while it is parsed. The passed feature values may be reused by the parser for the
+ * next row, i.e., they have to be copied if they are kept.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+interface RowSink {
+    void add(double[] values, int label, double weight);
+}
@@ -0,0 +1,63 @@
+package de.unima.classifiers.dataset;
+
+import de.unima.classifiers.structure.Sample;
+
+/**
+ * Row View. Lightweight sample that reads its values from a row of a {@link ColumnarDataSet}. A view can be moved to
+ * another row, i.e., a single view is sufficient to pass all rows to a classifier that has finished with a sample when
+ * its method returns. This does not hold for a forest with worker threads ('numThreads' > 1): update only queues the
+ * sample, i.e., the workers would read the view after it was moved. Such a forest needs a view per row (e.g., from
+ * {@link ColumnarDataSet#getSamples()}) or a copy (new Sample(view.getValues(), ...)).
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class RowView extends Sample {
+    private ColumnarDataSet ds;
+    private int             row;
+
+    public RowView(ColumnarDataSet ds) {
+        this.ds = ds;
+    }
+
+    void moveTo(int row) {
+        this.row = row;
+    }
+
+    @Override
+    public double getValue(int index) {
+        return this.ds.getRowValue(this.row, index);
+    }
+
+    @Override
+    public int getNumOfValues() {
+        return this.ds.getNumOfFeatures();
+    }
+
+    // copy of the feature values
+    @Override
+    public double[] getValues() {
+        double[] values = new double[this.ds.getNumOfFeatures()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.ds.getRowValue(this.row, i);
+        }
+
+        return values;
+    }
+
+    @Override
+    public int getLabel() {
+        return this.ds.getRowLabel(this.row);
+    }
+
+    @Override
+    public double getWeight() {
+        return this.ds.getRowWeight(this.row);
+    }
+
+    @Override
+    public int getId() {
+        return row;
+    }
+}
@@ -0,0 +1,23 @@
+package de.unima.classifiers.dataset;
+
+import de.unima.classifiers.structure.Sample;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Interface for streams of samples. In contrast to a {@link DataSet}, the samples are parsed lazily one after another,
+ * i.e., the memory consumption does not depend on the number of samples. As the value ranges of the features are not
+ * known in advance, they have to be provided by other means when a classifier is created.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public interface SampleSource extends Iterator<Sample>, Closeable {
+    int getNumOfClasses();
+
+    int getNumOfFeatures();
+
+    Map<String, Integer> getClassLabels();
+}
@@ -0,0 +1,159 @@
+package de.unima.classifiers.evaluation;
+
+import de.unima.classifiers.structure.Result;
+
+/**
+ * Confusion Matrix. Accumulates classification results one at a time, i.e., neither the results nor the samples are
+ * kept. Besides the matrix, the row and column sums are updated with each result, hence, all statistics of
+ * {@link Evaluation} are available without iterating over the results again. A matrix is not thread-safe; instead,
+ * each thread (or fold) accumulates its own matrix and the matrices are merged afterwards.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class ConfusionMatrix {
+    private int     numOfClasses;
+    private int[][] matrix;             // [actual][predicted]
+    private long[]  actualCounts;       // row sums
+    private long[]  predictedCounts;    // column sums
+    private long    total;
+    private long    correct;
+    private long    numConfidences;     // results that provided confidence values
+    private double  sumConfidence;      // normalized confidence of the actual class
+
+    public ConfusionMatrix(int numClasses) {
+        this.numOfClasses = numClasses;
+        this.matrix = new int[numClasses][numClasses];
+        this.actualCounts = new long[numClasses];
+        this.predictedCounts = new long[numClasses];
+    }
+
+    public void add(int predicted, int actual) {
+        this.matrix[actual][predicted]++;
+        this.actualCounts[actual]++;
+        this.predictedCounts[predicted]++;
+        this.total++;
+
+        if (predicted == actual) {
+            this.correct++;
+        }
+    }
+
+    // the confidence values do not have to be normalized, e.g., the summed up confidence values of a forest
+    public void add(int predicted, int actual, double[] confidence) {
+        this.add(predicted, actual);
+
+        if (confidence == null) {
+            return;
+        }
+
+        double sum = 0.0d;
+        for (double value : confidence) {
+            sum += value;
+        }
+
+        if (sum > 0) {
+            this.sumConfidence += confidence[actual] / sum;
+            this.numConfidences++;
+        }
+    }
+
+    public void add(Result result, int actual) {
+        this.add(result.getPrediction(), actual, result.getConfidence());
+    }
+
+    // adds the results of the other matrix, e.g., of another fold or thread
+    public void merge(ConfusionMatrix other) {
+        for (int i = 0; i < this.numOfClasses; i++) {
+            for (int j = 0; j < this.numOfClasses; j++) {
+                this.matrix[i][j] += other.matrix[i][j];
+            }
+
+            this.actualCounts[i] += other.actualCounts[i];
+            this.predictedCounts[i] += other.predictedCounts[i];
+        }
+
+        this.total += other.total;
+        this.correct += other.correct;
+        this.numConfidences += other.numConfidences;
+        this.sumConfidence += other.sumConfidence;
+    }
+
+    public int getNumOfClasses() {
+        return numOfClasses;
+    }
+
+    public int getCount(int actual, int predicted) {
+        return this.matrix[actual][predicted];
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCorrect() {
+        return correct;
+    }
+
+    public long getIncorrect() {
+        return this.total - this.correct;
+    }
+
+    public long getActualCount(int nClass) {
+        return this.actualCounts[nClass];
+    }
+
+    public long getPredictedCount(int nClass) {
+        return this.predictedCounts[nClass];
+    }
+
+    public double getAccuracy() {
+        return (double) this.correct / (double) this.total;
+    }
+
+    public double getTruePositives(int nClass) {
+        return this.matrix[nClass][nClass];
+    }
+
+    public double getFalsePositives(int nClass) {
+        return this.predictedCounts[nClass] - this.matrix[nClass][nClass];
+    }
+
+    public double getFalseNegatives(int nClass) {
+        return this.actualCounts[nClass] - this.matrix[nClass][nClass];
+    }
+
+    public double getTrueNegatives(int nClass) {
+        return this.total - this.actualCounts[nClass] - this.predictedCounts[nClass] + this.matrix[nClass][nClass];
+    }
+
+    public double getFalsePositiveRate(int nClass) {
+        double fp = this.getFalsePositives(nClass);
+        return fp / (fp + this.getTrueNegatives(nClass));
+    }
+
+    public double getPrecision(int nClass) {
+        double tp = this.getTruePositives(nClass);
+        return tp / (tp + this.getFalsePositives(nClass));
+    }
+
+    public double getRecall(int nClass) {
+        double tp = this.getTruePositives(nClass);
+        return tp / (tp + this.getFalseNegatives(nClass));
+    }
+
+    public double getFMeasure(int nClass) {
+        double precision = this.getPrecision(nClass);
+        double recall    = this.getRecall(nClass);
+        return (2 * precision * recall) / (precision + recall);
+    }
+
+    // average of the confidence values of the actual classes, NaN if no confidence values were provided
+    public double getMeanConfidence() {
+        return this.sumConfidence / this.numConfidences;
+    }
+
+    public boolean hasConfidences() {
+        return this.numConfidences > 0;
+    }
+}
@@ -2,6 +2,9 @@ package de.unima.classifiers.evaluation;
 
 
 import de.unima.classifiers.Config;
+import de.unima.classifiers.LatencyHistogram;
+import de.unima.classifiers.RandomSource;
+import de.unima.classifiers.SplitMixRandom;
 import de.unima.classifiers.dataset.DataSet;
 import de.unima.classifiers.online.Classifier;
 import de.unima.classifiers.online.randomforest.RandomForest;
@@ -10,50 +13,101 @@ import de.unima.classifiers.structure.Sample;
 
 import java.io.File;
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Cross-Validation. Provides the possibility to perform cross validation, i.e, split the loaded data set into n-folds
  * where stratified sampling is performed. Subsequently, one fold is used for testing and the others for testing.
+ * <p>
+ * The folds of all runs are trained and tested in parallel on a fork-join pool. Each (run, fold) task has its own
+ * random stream, which is split from a single seed, hence, the results do not depend on the parallelism. Each task
+ * accumulates its own {@link ConfusionMatrix}; the matrices are merged and the reports are printed in the order of runs
+ * and folds as soon as the corresponding task is finished. The latencies of update, eval, and node splits are
+ * recorded per fold and merged the same way if 'recordLatency' is set. If a fold fails, the failure is rethrown and the
+ * remaining tasks are cancelled, i.e., averages are never computed over a subset of the folds.
+ * <p>
+ * Each fold trains its classifier with a copy of the passed configuration (default: {@link Config}), only the seed is
+ * replaced by the seed of the fold.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
 public class CrossValidation {
+    private static final String[] LATENCIES = {"update", "eval", "split"};
+
     private DataSet                    dataSet;
     private int                        numOfFolds;
     private int                        numOfRuns;
     private Classifier.Type            ct;
-    private Map<Integer, List<Sample>> folds;
     private PrintWriter                out;
+    private int                        parallelism;
+    private long                       seed;
+    private Config                     config;
 
     public CrossValidation(Classifier.Type ct, DataSet ds, int folds, int runs) {
+        this(ct, ds, folds, runs, new Config());
+    }
+
+    public CrossValidation(Classifier.Type ct, DataSet ds, int folds, int runs, Config config) {
         this.dataSet = ds;
         this.numOfFolds = folds;
         this.numOfRuns = runs;
         this.ct = ct;
+        this.config = config;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.seed = -1;
     }
 
     public void run() {
-        Map<Result, Integer> resultsOfAllRuns = new HashMap<>();
+        RandomSource             random           = this.seed != -1 ? new SplitMixRandom(this.seed) : new SplitMixRandom();
+        ConfusionMatrix          resultsOfAllRuns = new ConfusionMatrix(this.dataSet.getNumOfClasses());
+        LatencyHistogram[]       latencyOfAllRuns = this.newLatencies();
+        List<List<Future<Fold>>> tasks            = new ArrayList<>();
+        ForkJoinPool             pool             = new ForkJoinPool(this.parallelism);
+        long                     start            = System.currentTimeMillis();
+        long                     cpuTime          = 0;
 
-        for (int i = 0; i < this.numOfRuns; i++) {
-            if (i != 0) {
-                System.out.println("~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~" + System.lineSeparator());
-                if (this.out != null) {
-                    out.println("~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~" + System.lineSeparator());
+        try {
+            // the folds of each run are built up front, the tasks of all runs are scheduled at once
+            for (int i = 0; i < this.numOfRuns; i++) {
+                Map<Integer, List<Sample>> folds      = this.build(i, random.split());
+                List<Future<Fold>>         tasksOfRun = new ArrayList<>();
+
+                for (int j = 0; j < this.numOfFolds; j++) {
+                    int          fold       = j;
+                    RandomSource foldRandom = random.split();
+                    tasksOfRun.add(pool.submit(() -> this.trainAndTest(folds, fold, foldRandom)));
                 }
-            }
 
-            System.out.println("Run: " + i);
-            if (this.out != null) {
-                out.println("Run: " + i);
+                tasks.add(tasksOfRun);
             }
 
-            build();
-            resultsOfAllRuns.putAll(trainAndTest());
+            for (int i = 0; i < this.numOfRuns; i++) {
+                if (i != 0) {
+                    System.out.println("~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~" + System.lineSeparator());
+                    if (this.out != null) {
+                        out.println("~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~" + System.lineSeparator());
+                    }
+                }
+
+                System.out.println("Run: " + i);
+                if (this.out != null) {
+                    out.println("Run: " + i);
+                }
+
+                cpuTime += this.printRun(tasks.get(i), resultsOfAllRuns, latencyOfAllRuns);
+            }
+        } finally {
+            pool.shutdownNow();     // cancels the remaining tasks if a fold failed
         }
 
+        long wallTime = System.currentTimeMillis() - start;
+
         System.out.println(System.lineSeparator() + "Overall Result of all Runs");
         if (this.out != null) {
             out.println(System.lineSeparator() + "Overall Result of all Runs");
@@ -61,18 +115,36 @@ public class CrossValidation {
 
         Evaluation eval = new Evaluation(resultsOfAllRuns, dataSet);
         eval.setOutputWriter(this.out);
+        addLatencies(eval, latencyOfAllRuns);
         eval.printSummary();
         eval.printDetailedSummary();
         eval.printConfusionMatrix();
+
+        // speedup = CPU time of all folds / elapsed time
+        String speedup = "Wall Time: " + (wallTime / 1000.0d) + "   CPU Time of Folds: " + (cpuTime / 1000.0d) + "   Speedup: " + String.format(Locale.ROOT, "%.2f", (double) cpuTime / Math.max(1, wallTime)) + " (" + this.parallelism + " threads)";
+        System.out.println(speedup);
+        if (this.out != null) {
+            out.println(speedup);
+        }
     }
 
     public void setOutputWriter(PrintWriter out) {
         this.out = out;
     }
 
-    private void build() {
+    // number of (run, fold) tasks trained at the same time, default is the number of processors
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    // -1 = seed from system time
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    private Map<Integer, List<Sample>> build(int run, RandomSource random) {
         Map<Integer, List<Sample>> samplesByClass = new HashMap<>();
-        this.folds = new HashMap<>();
+        Map<Integer, List<Sample>> folds          = new HashMap<>();
 
         for (Sample sample : this.dataSet.getSamples()) {
             if (!samplesByClass.containsKey(sample.getLabel())) {
@@ -82,13 +154,11 @@ public class CrossValidation {
         }
 
         for (Integer key : samplesByClass.keySet()) {
-            Collections.shuffle(samplesByClass.get(key));
-            Collections.shuffle(samplesByClass.get(key));
-            Collections.shuffle(samplesByClass.get(key));
+            shuffle(samplesByClass.get(key), random);
         }
 
         for (int i = 0; i < this.numOfFolds; i++) {
-            this.folds.put(i, new ArrayList<Sample>());
+            folds.put(i, new ArrayList<Sample>());
 
             for (Integer key : samplesByClass.keySet()) {
                 List<Sample> values = samplesByClass.get(key);
@@ -102,26 +172,24 @@ public class CrossValidation {
                 }
 
                 for (int j = i * num + inc; j < i * num + inc + num; j++) {
-                    this.folds.get(i).add(values.get(j));
+                    folds.get(i).add(values.get(j));
                 }
 
                 if (i < modulo) {
-                    this.folds.get(i).add(values.get(i * num + inc + num));
+                    folds.get(i).add(values.get(i * num + inc + num));
                 }
             }
         }
 
         for (Integer key : folds.keySet()) {
-            Collections.shuffle(folds.get(key));
-            Collections.shuffle(folds.get(key));
-            Collections.shuffle(folds.get(key));
+            shuffle(folds.get(key), random);
         }
 
         // Export folds to files
         try {
             File root = new File("folds");
             root.mkdir();
-            File tmp = new File(root, Long.toString(System.currentTimeMillis()));
+            File tmp = new File(root, System.currentTimeMillis() + "-" + run);    // the runs are built in the same millisecond
             tmp.mkdir();
             for (int i = 0; i < 10; i++) {
                 int numSamplesTest  = 0;
@@ -135,7 +203,7 @@ public class CrossValidation {
                     }
                 }
 
-                int numFeatures = folds.get(0).get(0).getValues().length;
+                int numFeatures = folds.get(0).get(0).getNumOfValues();
 
                 File fold = new File(tmp, "fold" + i);
                 fold.mkdir();
@@ -191,13 +259,30 @@ public class CrossValidation {
         } catch (Exception e) {
             e.printStackTrace();
         }
+
+        return folds;
     }
 
-    private Map<Result, Integer> trainAndTest() {
-        Map<Result, Integer> overallResults = new HashMap<>();
+    // prints the reports of the folds of a run in their order and adds their results, returns the sum of their CPU times in ms
+    private long printRun(List<Future<Fold>> tasks, ConfusionMatrix resultsOfAllRuns, LatencyHistogram[] latencyOfAllRuns) {
+        ConfusionMatrix    overallResults = new ConfusionMatrix(this.dataSet.getNumOfClasses());
+        LatencyHistogram[] overallLatency = this.newLatencies();
+        long               cpuTime        = 0;
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Fold fold;
+            try {
+                fold = tasks.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Cross-validation was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Fold " + i + " failed", e.getCause());
+            }
 
-        for (int i = 0; i < this.numOfFolds; i++) {
-            long start = System.currentTimeMillis();
+            cpuTime += fold.cpuTime;
+            overallResults.merge(fold.results);
+            mergeLatencies(overallLatency, fold.latency);
 
             if (i != 0) {
                 System.out.println();
@@ -210,25 +295,70 @@ public class CrossValidation {
                 out.println("Fold: " + i);
             }
 
-            Config     rfc = new Config();
-            Classifier classifier;
+            System.out.println("Runtime: " + (fold.runtime / 1000.0d));
 
-            switch (this.ct) {
-                case ONLINERANDOMFOREST:
-                    classifier = new RandomForest(rfc, dataSet.getNumOfClasses(), dataSet.getNumOfFeatures(), dataSet.getMinFeatRange(), dataSet.getMaxFeatRange());
-                    break;
-                default:
-                    return null;
+            Evaluation eval = new Evaluation(fold.results, dataSet);
+            eval.setOutputWriter(this.out);
+            addLatencies(eval, fold.latency);
+            eval.printSummary();
+            eval.printDetailedSummary();
+            eval.printConfusionMatrix();
+            System.out.println("++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++");
+            if (this.out != null) {
+                out.println("++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++");
             }
+        }
+
+        System.out.println(System.lineSeparator() + "Overall Result");
+        if (this.out != null) {
+            out.println(System.lineSeparator() + "Overall Result");
+        }
 
+        Evaluation eval = new Evaluation(overallResults, dataSet);
+        eval.setOutputWriter(this.out);
+        addLatencies(eval, overallLatency);
+        eval.printSummary();
+        eval.printDetailedSummary();
+        eval.printConfusionMatrix();
+
+        resultsOfAllRuns.merge(overallResults);
+        mergeLatencies(latencyOfAllRuns, overallLatency);
+
+        return cpuTime;
+    }
+
+    // trains a classifier on all folds except 'testFold' and tests it on 'testFold', the folds are not modified
+    private Fold trainAndTest(Map<Integer, List<Sample>> folds, int testFold, RandomSource random) {
+        ThreadMXBean threads  = ManagementFactory.getThreadMXBean();
+        long         start    = System.currentTimeMillis();
+        long         startCpu = threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+
+        Config rfc = this.config.copy();
+        rfc.seed = random.nextLong();
+        Classifier         classifier;
+        RandomForest       forest;
+        LatencyHistogram[] latency;
+        ConfusionMatrix    results;
+
+        switch (this.ct) {
+            case ONLINERANDOMFOREST:
+                forest = new RandomForest(rfc, dataSet);
+                classifier = forest;
+                latency = new LatencyHistogram[]{forest.getUpdateLatency(), forest.getEvalLatency(), forest.getSplitLatency()};
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported classifier: " + this.ct);
+        }
+
+        try {
             for (int nEpoch = 0; nEpoch < rfc.numEpochs; nEpoch++) {
                 for (int j = 0; j < this.numOfFolds; j++) {
-                    if (i == j) {
+                    if (testFold == j) {
                         continue;
                     }
 
-                    List<Sample> samples = folds.get(j);
-                    Collections.shuffle(samples);
+                    List<Sample> samples = new ArrayList<>(folds.get(j));   // the folds are shared by the tasks of a run
+                    shuffle(samples, random);
 
                     for (Sample sample : samples) {
                         classifier.update(sample);
@@ -236,39 +366,66 @@ public class CrossValidation {
                 }
             }
 
-            System.out.println("Runtime: " + ((System.currentTimeMillis() - start) / 1000.0d));
-
-            Map<Result, Integer> results = new HashMap<>();
-            for (Sample sample : folds.get(i)) {
-                Result result = new Result(dataSet.getNumOfClasses());
+            results = new ConfusionMatrix(dataSet.getNumOfClasses());
+            Result result = new Result(dataSet.getNumOfClasses());
+            for (Sample sample : folds.get(testFold)) {
+                Arrays.fill(result.getConfidence(), 0.0d);
                 classifier.eval(sample, result);
 
-                results.put(result, sample.getLabel());
-                overallResults.put(result, sample.getLabel());
+                results.add(result, sample.getLabel());
             }
+        } finally {
+            forest.shutdown();  // stops the worker threads ('numThreads' > 1), they would keep the forest of each fold alive
+        }
 
-            Evaluation eval = new Evaluation(results, dataSet);
-            eval.setOutputWriter(this.out);
-            eval.printSummary();
-            eval.printDetailedSummary();
-            eval.printConfusionMatrix();
-            System.out.println("++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++");
-            if (this.out != null) {
-                out.println("++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++");
+        long runtime = System.currentTimeMillis() - start;
+        long cpuTime = startCpu != -1 ? (threads.getCurrentThreadCpuTime() - startCpu) / 1000000 : runtime;
+
+        return new Fold(results, latency, runtime, cpuTime);
+    }
+
+    // one histogram per entry of LATENCIES, null entries if latencies are not recorded
+    private LatencyHistogram[] newLatencies() {
+        LatencyHistogram[] latency = new LatencyHistogram[LATENCIES.length];
+        for (int i = 0; i < latency.length && this.config.recordLatency; i++) {
+            latency[i] = new LatencyHistogram();
+        }
+
+        return latency;
+    }
+
+    private static void mergeLatencies(LatencyHistogram[] target, LatencyHistogram[] latency) {
+        for (int i = 0; i < LATENCIES.length; i++) {
+            if (target[i] != null && latency[i] != null) {
+                target[i].merge(latency[i]);
             }
         }
+    }
 
-        System.out.println(System.lineSeparator() + "Overall Result");
-        if (this.out != null) {
-            out.println(System.lineSeparator() + "Overall Result");
+    private static void addLatencies(Evaluation eval, LatencyHistogram[] latency) {
+        for (int i = 0; i < LATENCIES.length; i++) {
+            eval.addLatency(LATENCIES[i], latency[i]);
         }
+    }
 
-        Evaluation eval = new Evaluation(overallResults, dataSet);
-        eval.setOutputWriter(this.out);
-        eval.printSummary();
-        eval.printDetailedSummary();
-        eval.printConfusionMatrix();
+    // Fisher-Yates shuffle
+    private static void shuffle(List<Sample> samples, RandomSource random) {
+        for (int i = samples.size() - 1; i > 0; i--) {
+            Collections.swap(samples, i, random.nextInt(i + 1));
+        }
+    }
 
-        return overallResults;
+    private static class Fold {
+        private ConfusionMatrix    results;
+        private LatencyHistogram[] latency;    // in the order of LATENCIES, null entries if not recorded
+        private long               runtime;    // ms
+        private long               cpuTime;    // ms, the runtime if the CPU time of threads is not supported
+
+        private Fold(ConfusionMatrix results, LatencyHistogram[] latency, long runtime, long cpuTime) {
+            this.results = results;
+            this.latency = latency;
+            this.runtime = runtime;
+            this.cpuTime = cpuTime;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,53 +1,78 @@
 package de.unima.classifiers.evaluation;
 
+import de.unima.classifiers.LatencyHistogram;
 import de.unima.classifiers.dataset.DataSet;
 import de.unima.classifiers.structure.Result;
 
 import java.io.PrintWriter;
 import java.text.DecimalFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Evaluation. This module provides the possibility to calculate common statistics concerning of the performance of the
- * trained and testes classification model. This includes, precision, recall, F-measure, confusion matrix, etc.
+ * trained and testes classification model. This includes, precision, recall, F-measure, confusion matrix, etc. All
+ * statistics are derived from a {@link ConfusionMatrix}, i.e., the results do not have to be kept. Latency histograms,
+ * e.g., of {@link de.unima.classifiers.online.randomforest.RandomForest#getUpdateLatency()}, are printed with the
+ * summary.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
 public class Evaluation {
-    private Map<Result, Integer> results;
-    private int                  numOfClasses;
-    private DataSet              ds;
-    private PrintWriter          out;
-
-    public Evaluation(Map<Result, Integer> results, DataSet ds) {
-        this.results = results;
+    private ConfusionMatrix               matrix;
+    private int                           numOfClasses;
+    private DataSet                       ds;
+    private PrintWriter                   out;
+    private Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+
+    public Evaluation(ConfusionMatrix matrix, DataSet ds) {
+        this.matrix = matrix;
         this.numOfClasses = ds.getNumOfClasses();
         this.ds = ds;
     }
 
+    // result -> actual class
+    public Evaluation(Map<Result, Integer> results, DataSet ds) {
+        this(new ConfusionMatrix(ds.getNumOfClasses()), ds);
+
+        for (Map.Entry<Result, Integer> entry : results.entrySet()) {
+            this.matrix.add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public ConfusionMatrix getConfusionMatrix() {
+        return matrix;
+    }
+
     public void setOutputWriter(PrintWriter out) {
         this.out = out;
     }
 
-    public void printConfusionMatrix() {
-        int[][] matrix = new int[this.numOfClasses][this.numOfClasses];
-
-        for (Result key : this.results.keySet()) {
-            matrix[this.results.get(key)][key.getPrediction()]++;
+    // the histograms are printed in the order they were added, null is ignored
+    public void addLatency(String name, LatencyHistogram histogram) {
+        if (histogram != null) {
+            this.latencies.put(name, histogram);
         }
+    }
+
+    public Map<String, LatencyHistogram> getLatencies() {
+        return latencies;
+    }
 
+    public void printConfusionMatrix() {
         double[] length = new double[this.numOfClasses];
 
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (length[i] < matrix[j][i]) {
-                    length[i] = matrix[j][i];
+        for (int i = 0; i < this.numOfClasses; i++) {
+            for (int j = 0; j < this.numOfClasses; j++) {
+                if (length[i] < this.matrix.getCount(j, i)) {
+                    length[i] = this.matrix.getCount(j, i);
                 }
             }
         }
 
-        for (int i = 0; i < matrix.length; i++) {
+        for (int i = 0; i < this.numOfClasses; i++) {
             char   c       = (char) (97 + i);
             String largest = String.valueOf(length[i]);
             String s       = String.valueOf(c);
@@ -65,9 +90,9 @@ public class Evaluation {
             out.println("   <-- classified as");
         }
 
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[i].length; j++) {
-                String value   = String.valueOf(matrix[i][j]);
+        for (int i = 0; i < this.numOfClasses; i++) {
+            for (int j = 0; j < this.numOfClasses; j++) {
+                String value   = String.valueOf(this.matrix.getCount(i, j));
                 String largest = String.valueOf(length[j]);
 
                 while (value.length() < largest.length()) {
@@ -95,58 +120,21 @@ public class Evaluation {
     public void printDetailedSummary() {
         double[][] summary = new double[this.numOfClasses + 1][5];
 
-        int[][] matrix = new int[this.numOfClasses][this.numOfClasses];
-
-        for (Result key : this.results.keySet()) {
-            matrix[this.results.get(key)][key.getPrediction()]++;
-        }
-
-        int   totalNumberOfInstances = 0;
-        int[] instancesPerClass      = new int[this.numOfClasses];
-        for (int j = 0; j < this.numOfClasses; j++) {
-            for (int k = 0; k < this.numOfClasses; k++) {
-                totalNumberOfInstances += matrix[j][k];
-            }
-        }
-
         for (int i = 0; i < this.numOfClasses; i++) {
-
-            double tp = matrix[i][i];
-            double fp = 0.0;
-            double fn = 0.0;
-            double tn = 0.0;
-
-            for (int j = 0; j < this.numOfClasses; j++) {
-                for (int k = 0; k < this.numOfClasses; k++) {
-                    if (j != i && k != i) {
-                        tn += matrix[j][k];
-                    }
-
-                    if (j == i && k != j) {
-                        fn += matrix[j][k];
-                    }
-
-                    if (k == i && j != k) {
-                        fp += matrix[j][k];
-                    }
-                }
-
-                instancesPerClass[i] += matrix[i][j];
-            }
-
-            summary[i][0] = fp / (fp + tn); // fprate
-            summary[i][1] = tp / (tp + fp); // precision
-            summary[i][2] = tp / (tp + fn); // recall
-            summary[i][3] = (2 * summary[i][1] * summary[i][2]) / (summary[i][1] + summary[i][2]); // f-measure
+            summary[i][0] = this.matrix.getFalsePositiveRate(i); // fprate
+            summary[i][1] = this.matrix.getPrecision(i); // precision
+            summary[i][2] = this.matrix.getRecall(i); // recall
+            summary[i][3] = this.matrix.getFMeasure(i); // f-measure
             summary[i][4] = i; // class
         }
 
-
+        long totalNumberOfInstances = this.matrix.getTotal();
         for (int i = 0; i < summary.length - 1; i++) {
-            summary[summary.length - 1][0] += summary[i][0] * instancesPerClass[i];
-            summary[summary.length - 1][1] += summary[i][1] * instancesPerClass[i];
-            summary[summary.length - 1][2] += summary[i][2] * instancesPerClass[i];
-            summary[summary.length - 1][3] += summary[i][3] * instancesPerClass[i];
+            long instancesOfClass = this.matrix.getActualCount(i);
+            summary[summary.length - 1][0] += summary[i][0] * instancesOfClass;
+            summary[summary.length - 1][1] += summary[i][1] * instancesOfClass;
+            summary[summary.length - 1][2] += summary[i][2] * instancesOfClass;
+            summary[summary.length - 1][3] += summary[i][3] * instancesOfClass;
         }
         summary[summary.length - 1][0] /= totalNumberOfInstances;
         summary[summary.length - 1][1] /= totalNumberOfInstances;
@@ -207,18 +195,8 @@ public class Evaluation {
     }
 
     public void printSummary() {
-        int correct   = 0;
-        int incorrect = 0;
-
-        for (Result entry : this.results.keySet()) {
-            int value = this.results.get(entry);
-
-            if (entry.getPrediction() == value) {
-                correct++;
-            } else {
-                incorrect++;
-            }
-        }
+        long correct   = this.matrix.getCorrect();
+        long incorrect = this.matrix.getIncorrect();
 
         DecimalFormat df = new DecimalFormat("#0.0000");
 
@@ -249,11 +227,49 @@ public class Evaluation {
         System.out.println("Correctly Classified Instances      " + sCorrect + "               " + sCorrectPer.replace(",", "."));
         System.out.println("Incorrectly Classified Instances    " + sIncorrect + "               " + sIncorrectPer.replace(",", "."));
         System.out.println("Total Number of Instances           " + total);
-        System.out.println();
         if (this.out != null) {
             out.println("Correctly Classified Instances      " + sCorrect + "               " + sCorrectPer.replace(",", "."));
             out.println("Incorrectly Classified Instances    " + sIncorrect + "               " + sIncorrectPer.replace(",", "."));
             out.println("Total Number of Instances           " + total);
+        }
+
+        if (this.matrix.hasConfidences()) {
+            String confidence = df.format(this.matrix.getMeanConfidence()).replace(",", ".");
+            System.out.println("Mean Confidence of Actual Class     " + confidence);
+            if (this.out != null) {
+                out.println("Mean Confidence of Actual Class     " + confidence);
+            }
+        }
+
+        System.out.println();
+        if (this.out != null) {
+            out.println();
+        }
+
+        if (!this.latencies.isEmpty()) {
+            this.printLatencies();
+        }
+    }
+
+    // count and latencies in microseconds per histogram
+    private void printLatencies() {
+        String header = String.format(Locale.ROOT, "%-12s %10s %10s %10s %10s %10s %10s", "Latency [us]", "Count", "Mean", "p50", "p99", "p99.9", "Max");
+        System.out.println(header);
+        if (this.out != null) {
+            out.println(header);
+        }
+
+        for (Map.Entry<String, LatencyHistogram> entry : this.latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            String           line      = String.format(Locale.ROOT, "%-12s %10d %10.1f %10.1f %10.1f %10.1f %10.1f", entry.getKey(), histogram.getCount(), histogram.getCount() > 0 ? histogram.getMean() / 1000.0d : 0.0d, histogram.getValueAtPercentile(50) / 1000.0d, histogram.getValueAtPercentile(99) / 1000.0d, histogram.getValueAtPercentile(99.9) / 1000.0d, histogram.getMax() / 1000.0d);
+            System.out.println(line);
+            if (this.out != null) {
+                out.println(line);
+            }
+        }
+
+        System.out.println();
+        if (this.out != null) {
             out.println();
         }
     }
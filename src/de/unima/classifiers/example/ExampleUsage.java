@@ -3,6 +3,7 @@ package de.unima.classifiers.example;
 import de.unima.classifiers.Config;
 import de.unima.classifiers.dataset.ARFF;
 import de.unima.classifiers.dataset.DataSet;
+import de.unima.classifiers.evaluation.ConfusionMatrix;
 import de.unima.classifiers.evaluation.Evaluation;
 import de.unima.classifiers.online.randomforest.RandomForest;
 import de.unima.classifiers.structure.Result;
@@ -11,14 +12,12 @@ import de.unima.classifiers.structure.Sample;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Example how to use the online random forest classifier
  *
  * @author Timo Sztyler
- * @version 17.01.2017
+ * @version 17.10.2026
  */
 public class ExampleUsage {
     public static void main(String[] args) throws Exception {
@@ -39,6 +38,7 @@ public class ExampleUsage {
         Config config = new Config();
         config.numTree = 10;
         config.refineThreshold = false;
+        config.recordLatency = true;
 
         // create classifier
         RandomForest rf = new RandomForest(config, arffTrain.getNumOfClasses(), arffTrain.getNumOfFeatures(), arffTrain.getMinFeatRange(), arffTrain.getMaxFeatRange());
@@ -53,15 +53,18 @@ public class ExampleUsage {
         }
 
         // test classifier
-        Map<Result, Integer> results = new HashMap<>();
+        ConfusionMatrix results = new ConfusionMatrix(arffTest.getNumOfClasses());
 
         for (Sample sample : arffTest.getSamples()) {
             Result result = new Result(arffTest.getNumOfClasses());
             rf.eval(sample, result);
-            results.put(result, sample.getLabel());
+            results.add(result, sample.getLabel());
         }
 
         Evaluation eval = new Evaluation(results, arffTest);
+        eval.addLatency("update", rf.getUpdateLatency());
+        eval.addLatency("eval", rf.getEvalLatency());
+        eval.addLatency("split", rf.getSplitLatency());
         eval.printSummary();
         eval.printDetailedSummary();
         eval.printConfusionMatrix();
@@ -1,20 +1,26 @@
 package de.unima.classifiers.online;
 
-import de.unima.classifiers.structure.Result;
 import de.unima.classifiers.structure.Sample;
 
+import java.util.List;
+
 /**
- * Interface for classifier modules.
+ * Interface for classifier modules, i.e., predictors that are trained online.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
-public interface Classifier {
+public interface Classifier extends Predictor {
     enum Type {
         ONLINERANDOMFOREST;
     }
 
     void update(Sample sample);
 
-    void eval(Sample sample, Result result);
-}
\ No newline at end of file
+    // equals successive updates with the samples in their order
+    default void updateBatch(List<Sample> samples) {
+        for (Sample sample : samples) {
+            this.update(sample);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package de.unima.classifiers.online;
+
+import de.unima.classifiers.structure.Result;
+import de.unima.classifiers.structure.Sample;
+
+import java.util.List;
+
+/**
+ * Interface for modules that classify samples, e.g., models that cannot be trained (anymore).
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public interface Predictor {
+    void eval(Sample sample, Result result);
+
+    // results[i] receives the classification of samples.get(i)
+    default void evalBatch(List<Sample> samples, Result[] results) {
+        for (int i = 0; i < samples.size(); i++) {
+            this.eval(samples.get(i), results[i]);
+        }
+    }
+
+    default void evalBatch(double[][] features, Result[] results) {
+        for (int i = 0; i < features.length; i++) {
+            this.eval(new Sample(features[i], -1, 1.0d, i), results[i]);
+        }
+    }
+}
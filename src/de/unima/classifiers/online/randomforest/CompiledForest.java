@@ -0,0 +1,211 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.Utilities;
+import de.unima.classifiers.online.Predictor;
+import de.unima.classifiers.structure.Result;
+import de.unima.classifiers.structure.Sample;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Compiled Random Forest. Read-only snapshot of a trained forest for classification only. All nodes of all trees are
+ * stored in flat arrays, i.e., there are no node objects and no training state (random tests, caches). The children of
+ * a node are stored next to each other (left, right), hence, a node is either a split (feature index >= 0) or a leaf
+ * whose child index points to its class distribution.
+ * <p>
+ * With 'singlePrecision', thresholds and class distributions are stored as float. A threshold is rounded down to the
+ * next float, hence, feature values that are floats (e.g., of a single-precision data set) take the same branches as
+ * in the forest itself.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class CompiledForest implements Predictor {
+    private int      numClasses;
+    private int[]    roots;
+    private int[]    feature;               // feature index of a split, -1 = leaf
+    private double[] threshold;
+    private float[]  floatThreshold;        // instead of threshold if singlePrecision is true
+    private int[]    child;                 // split: index of the left child (right = left + 1); leaf: offset in distributions
+    private double[] distributions;         // normalized class distributions of all leaves, numClasses values per leaf
+    private float[]  floatDistributions;    // instead of distributions if singlePrecision is true
+    private double[] weights;               // weights of the trees per class, null = unweighted
+
+    // weights = weights of the trees per class (numClasses values per tree), null = unweighted
+    CompiledForest(RandomTree[] trees, int numClasses, double[] weights, boolean singlePrecision) {
+        this.numClasses = numClasses;
+        this.roots = new int[trees.length];
+
+        List<RandomNode> nodes     = new ArrayList<>();
+        List<Split>      splits    = new ArrayList<>();    // read once per node, the trees might be trained meanwhile
+        int              numLeaves = 0;
+
+        // breadth-first, the children of a node get consecutive indices
+        for (int nTree = 0; nTree < trees.length; nTree++) {
+            Deque<RandomNode> queue = new ArrayDeque<>();
+            this.roots[nTree] = nodes.size();
+            nodes.add(trees[nTree].getRootNode());
+            queue.add(trees[nTree].getRootNode());
+
+            while (!queue.isEmpty()) {
+                Split split = queue.poll().getSplit();
+                splits.add(split);
+
+                if (split == null) {
+                    numLeaves++;
+                } else {
+                    nodes.add(split.getLeftChildNode());
+                    nodes.add(split.getRightChildNode());
+                    queue.add(split.getLeftChildNode());
+                    queue.add(split.getRightChildNode());
+                }
+            }
+        }
+
+        this.feature = new int[nodes.size()];
+        this.child = new int[nodes.size()];
+        if (singlePrecision) {
+            this.floatThreshold = new float[nodes.size()];
+            this.floatDistributions = new float[numLeaves * numClasses];
+        } else {
+            this.threshold = new double[nodes.size()];
+            this.distributions = new double[numLeaves * numClasses];
+        }
+
+        int      nextChild  = 0;
+        int      nextLeaf   = 0;
+        double[] confidence = new double[numClasses];
+        for (int nNode = 0; nNode < nodes.size(); nNode++) {
+            RandomNode node  = nodes.get(nNode);
+            Split      split = splits.get(nNode);
+
+            // the nodes of a tree are stored en bloc, the root has no parent
+            if (nNode == nextChild) {
+                nextChild++;
+            }
+
+            if (split == null) {
+                this.feature[nNode] = -1;
+                this.child[nNode] = nextLeaf;
+                node.getConfidence(confidence);
+                for (int nClass = 0; nClass < numClasses; nClass++) {
+                    if (singlePrecision) {
+                        this.floatDistributions[nextLeaf + nClass] = (float) confidence[nClass];
+                    } else {
+                        this.distributions[nextLeaf + nClass] = confidence[nClass];
+                    }
+                }
+                nextLeaf += numClasses;
+            } else {
+                this.feature[nNode] = split.getTest().getFeatureId();
+                if (singlePrecision) {
+                    this.floatThreshold[nNode] = roundDown(split.getTest().getThreshold());
+                } else {
+                    this.threshold[nNode] = split.getTest().getThreshold();
+                }
+                this.child[nNode] = nextChild;
+                nextChild += 2;
+            }
+        }
+
+        if (weights != null) {
+            this.weights = weights.clone();
+        }
+    }
+
+    @Override
+    public void eval(Sample sample, Result result) {
+        double[] confidence = this.getConfidence(result);
+
+        for (int nTree = 0; nTree < this.roots.length; nTree++) {
+            int nNode = this.roots[nTree];
+            int nFeature;
+
+            while ((nFeature = this.feature[nNode]) >= 0) {
+                nNode = this.child[nNode] + (this.isRight(nNode, sample.getValue(nFeature)) ? 1 : 0);
+            }
+
+            this.addLeaf(nTree, nNode, confidence);
+        }
+
+        this.finish(result);
+    }
+
+    public void eval(double[] values, Result result) {
+        double[] confidence = this.getConfidence(result);
+
+        for (int nTree = 0; nTree < this.roots.length; nTree++) {
+            int nNode = this.roots[nTree];
+            int nFeature;
+
+            while ((nFeature = this.feature[nNode]) >= 0) {
+                nNode = this.child[nNode] + (this.isRight(nNode, values[nFeature]) ? 1 : 0);
+            }
+
+            this.addLeaf(nTree, nNode, confidence);
+        }
+
+        this.finish(result);
+    }
+
+    public int getNumOfNodes() {
+        return feature.length;
+    }
+
+    public int getNumOfTrees() {
+        return roots.length;
+    }
+
+    // the largest float that is <= value, i.e., float values are > the rounded threshold iff they are > value
+    private static float roundDown(double value) {
+        float rounded = (float) value;
+        return rounded > value ? Math.nextDown(rounded) : rounded;
+    }
+
+    private boolean isRight(int nNode, double value) {
+        if (this.floatThreshold != null) {
+            return value > this.floatThreshold[nNode];
+        }
+
+        return value > this.threshold[nNode];
+    }
+
+    private double getDistribution(int index) {
+        if (this.floatDistributions != null) {
+            return this.floatDistributions[index];
+        }
+
+        return this.distributions[index];
+    }
+
+    private double[] getConfidence(Result result) {
+        if (result.getConfidence() == null) {
+            result.setConfidence(new double[this.numClasses]);
+        }
+
+        return result.getConfidence();
+    }
+
+    private void addLeaf(int nTree, int nNode, double[] confidence) {
+        int offset = this.child[nNode];
+
+        if (this.weights == null) {
+            for (int nClass = 0; nClass < this.numClasses; nClass++) {
+                confidence[nClass] += this.getDistribution(offset + nClass);
+            }
+        } else {
+            int wOffset = nTree * this.numClasses;
+            for (int nClass = 0; nClass < this.numClasses; nClass++) {
+                confidence[nClass] += this.getDistribution(offset + nClass) * this.weights[wOffset + nClass];
+            }
+        }
+    }
+
+    private void finish(Result result) {
+        result.divideConfidenceByInteger(this.roots.length);
+        result.setPrediction(Utilities.getMaxCoeffIndex(result.getConfidence()));
+    }
+}
@@ -0,0 +1,64 @@
+package de.unima.classifiers.online.randomforest;
+
+/**
+ * Entropy Criterion. Negative information gain of the split (in nats). The gain is the mutual information between
+ * branch and class, i.e., N * gain = sum(n log n) over the branch/class cells - sum(n log n) over the branches - sum(n
+ * log n) over the classes + N log N. Hence, each count is passed once to {@link #log(double)}, which approximates the
+ * natural logarithm by a lookup table with an absolute error below 1e-10.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class EntropyCriterion implements SplitCriterion {
+    private static final int      TABLE_BITS    = 8;
+    private static final int      TABLE_SIZE    = 1 << TABLE_BITS;
+    private static final long     MANTISSA_MASK = (1L << 52) - 1;
+    private static final long     EXPONENT_ONE  = 1023L << 52;
+    private static final double   LN2           = Math.log(2.0d);
+    private static final double[] LOG           = new double[TABLE_SIZE];    // log(1 + i / TABLE_SIZE)
+    private static final double[] INVERSE       = new double[TABLE_SIZE];    // 1 / (1 + i / TABLE_SIZE)
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            double base = 1.0d + (double) i / TABLE_SIZE;
+            LOG[i] = Math.log(base);
+            INVERSE[i] = 1.0d / base;
+        }
+    }
+
+    @Override
+    public double score(double[] trueStats, double trueCount, double[] falseStats, double falseCount) {
+        double cells   = 0.0d;
+        double classes = 0.0d;
+
+        for (int nClass = 0; nClass < trueStats.length; nClass++) {
+            cells += xlogx(trueStats[nClass]) + xlogx(falseStats[nClass]);
+            classes += xlogx(trueStats[nClass] + falseStats[nClass]);
+        }
+
+        double total = trueCount + falseCount;
+        double gain  = cells - xlogx(trueCount) - xlogx(falseCount) - classes + xlogx(total);
+
+        return -gain * SplitCriterion.inverse(total);
+    }
+
+    // x * log(x) with 0 * log(0) = 0, x must not be negative
+    private static double xlogx(double x) {
+        return x * log(x + Double.MIN_NORMAL);
+    }
+
+    /**
+     * Natural logarithm of a positive normal value. The value is split into 2^e * m with m in [1, 2); m is divided by
+     * the closest table entry b <= m, i.e., log(m) = log(b) + log(1 + r) with 0 <= r < 1 / TABLE_SIZE, and log(1 + r)
+     * is approximated by r - r^2 / 2 + r^3 / 3.
+     */
+    static double log(double x) {
+        long   bits     = Double.doubleToRawLongBits(x);
+        int    exponent = (int) (bits >>> 52) - 1023;
+        int    index    = (int) ((bits & MANTISSA_MASK) >>> (52 - TABLE_BITS));
+        double mantissa = Double.longBitsToDouble((bits & MANTISSA_MASK) | EXPONENT_ONE);
+        double r        = mantissa * INVERSE[index] - 1.0d;
+
+        return exponent * LN2 + LOG[index] + r * (1.0d - r * (0.5d - r * (1.0d / 3.0d)));
+    }
+}
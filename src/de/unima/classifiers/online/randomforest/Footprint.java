@@ -0,0 +1,128 @@
+package de.unima.classifiers.online.randomforest;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Footprint of a forest, i.e., the number of nodes, leaves, and random tests and an estimate of the occupied heap
+ * memory. The estimate assumes a 64-bit JVM with compressed references and covers the trees only, not the data that is
+ * shared by all trees (configuration, feature ranges). The trees are walked once, the walk also collects the depths of
+ * the leaves and is shared by {@link MetricsSnapshot}.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class Footprint {
+    static final int NODE_SIZE   = 64;  // object header and fields of a node
+    static final int TEST_SIZE   = 128;
+    static final int BUFFER_SIZE = 56;
+    static final int SPLIT_SIZE  = 24;
+
+    private int    numTrees;
+    private long   numNodes;
+    private long   numLeaves;
+    private long   numFrozenLeaves;
+    private long   numTests;
+    private long[] leavesPerDepth;
+    private long   sumLeafDepth;
+    private long   bytes;
+    private long   pendingBytes;    // random tests and sample buffers of the leaves
+
+    // the split of each node is read once, i.e., the walk is safe while the trees are trained
+    Footprint(RandomTree[] trees) {
+        this.numTrees = trees.length;
+
+        long[]            leavesPerDepth = new long[8];
+        Deque<RandomNode> stack          = new ArrayDeque<>();
+        for (RandomTree tree : trees) {
+            stack.push(tree.getRootNode());
+
+            while (!stack.isEmpty()) {
+                RandomNode node  = stack.pop();
+                Split      split = node.getSplit();
+                this.numNodes++;
+                this.bytes += node.estimateMemory();
+
+                if (split == null) {
+                    int depth = node.getDepth();
+                    if (depth >= leavesPerDepth.length) {
+                        leavesPerDepth = Arrays.copyOf(leavesPerDepth, Math.max(depth + 1, 2 * leavesPerDepth.length));
+                    }
+                    leavesPerDepth[depth]++;
+
+                    this.numLeaves++;
+                    this.sumLeafDepth += depth;
+                    this.pendingBytes += node.estimatePendingMemory();
+                    if (node.isFrozen()) {
+                        this.numFrozenLeaves++;
+                    } else {
+                        this.numTests += node.getNumOfTests();
+                    }
+                } else {
+                    stack.push(split.getLeftChildNode());
+                    stack.push(split.getRightChildNode());
+                }
+            }
+        }
+
+        int maxDepth = leavesPerDepth.length - 1;
+        while (maxDepth > 0 && leavesPerDepth[maxDepth] == 0) {
+            maxDepth--;
+        }
+        this.leavesPerDepth = Arrays.copyOf(leavesPerDepth, maxDepth + 1);
+    }
+
+    public int getNumOfTrees() {
+        return numTrees;
+    }
+
+    public long getNumOfNodes() {
+        return numNodes;
+    }
+
+    public long getNumOfLeaves() {
+        return numLeaves;
+    }
+
+    // leaves without random tests, i.e., leaves that only update their class distribution
+    public long getNumOfFrozenLeaves() {
+        return numFrozenLeaves;
+    }
+
+    public long getNumOfTests() {
+        return numTests;
+    }
+
+    // depth of the deepest leaf, the root has depth 0
+    public int getMaxDepth() {
+        return this.leavesPerDepth.length - 1;
+    }
+
+    public double getMeanLeafDepth() {
+        return (double) this.sumLeafDepth / this.numLeaves;
+    }
+
+    // leavesPerDepth[d] = number of leaves at depth d
+    public long[] getLeavesPerDepth() {
+        return leavesPerDepth.clone();
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "Trees: " + this.numTrees + ", Nodes: " + this.numNodes + ", Leaves: " + this.numLeaves + " (frozen: " + this.numFrozenLeaves + "), Tests: " + this.numTests + ", Memory: " + (this.bytes / 1024) + " KB";
+    }
+
+    // size of an array, aligned to 8 bytes
+    static long array(int length, int elementSize) {
+        return (16L + (long) length * elementSize + 7) & ~7L;
+    }
+}
@@ -0,0 +1,165 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Binary snapshot of a random forest. A snapshot covers the configuration, the out-of-bag statistics, and all trees
+ * including the random tests of the leaves and the state of the random number generators, i.e., a restored forest can
+ * be used for classification and can be trained further. The file is written through a buffered channel and restored
+ * from a memory-mapped file. An existing file is replaced atomically once the snapshot is completely written.
+ * <p>
+ * Layout: magic number, version, configuration (name, type, and value per parameter; unknown parameters are skipped),
+ * number of classes, value ranges, out-of-bag statistics, trees (generator state, nodes in pre-order).
+ * <p>
+ * Snapshots are always written in the current version, all earlier versions can be read: version 1 (a sample cache per
+ * test), version 2 (histograms), version 3 (a sample buffer per leaf), and version 4 (frozen leaves). The caches of
+ * versions 1 and 2 are moved into the sample buffer of their leaf, i.e., a restored forest is trained as if it had
+ * never been persisted. To migrate a file, read it and write it again.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class ForestSnapshot {
+    private static final int MAGIC       = 0x4F524653;  // ORFS
+    private static final int VERSION     = 4;
+    private static final int MIN_VERSION = 1;
+
+    public static void write(RandomForest forest, File file) throws IOException {
+        forest.flush();
+
+        try (SnapshotWriter out = new SnapshotWriter(file)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            writeConfig(forest.getConfig(), out);
+
+            out.writeInt(forest.getCounter().length);
+            out.writeDoubles(forest.getMinFeatRange());
+            out.writeDoubles(forest.getMaxFeatRange());
+            out.writeInts(forest.getCounter());
+            for (int[] treeStats : forest.getTreeStats()) {
+                out.writeInts(treeStats);
+            }
+
+            for (RandomTree tree : forest.getTrees()) {
+                tree.write(out);
+            }
+
+            out.commit();
+        }
+    }
+
+    public static RandomForest read(File file) throws IOException {
+        try (SnapshotReader in = new SnapshotReader(file)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a random forest snapshot: " + file);
+            }
+
+            int version = in.readInt();
+            if (version < MIN_VERSION || version > VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            in.setVersion(version);
+
+            Config   config       = readConfig(in);
+            int      numClasses   = in.readInt();
+            double[] minFeatRange = in.readDoubles();
+            double[] maxFeatRange = in.readDoubles();
+            int[]    counter      = in.readInts();
+
+            int[][] treeStats = new int[config.numTree][];
+            for (int nTree = 0; nTree < config.numTree; nTree++) {
+                treeStats[nTree] = in.readInts();
+            }
+
+            RandomTree[] trees = new RandomTree[config.numTree];
+            for (int nTree = 0; nTree < config.numTree; nTree++) {
+                trees[nTree] = new RandomTree(config, numClasses, minFeatRange, maxFeatRange, in);
+            }
+
+            return new RandomForest(config, trees, counter, treeStats, minFeatRange, maxFeatRange);
+        }
+    }
+
+    private static void writeConfig(Config config, SnapshotWriter out) throws IOException {
+        Field[] fields = Config.class.getFields();
+        out.writeInt(fields.length);
+
+        try {
+            for (Field field : fields) {
+                out.writeString(field.getName());
+
+                if (field.getType() == int.class) {
+                    out.writeInt('I');
+                    out.writeInt(field.getInt(config));
+                } else if (field.getType() == long.class) {
+                    out.writeInt('J');
+                    out.writeLong(field.getLong(config));
+                } else if (field.getType() == double.class) {
+                    out.writeInt('D');
+                    out.writeDouble(field.getDouble(config));
+                } else if (field.getType() == boolean.class) {
+                    out.writeInt('Z');
+                    out.writeBoolean(field.getBoolean(config));
+                } else {
+                    out.writeInt('S');
+                    out.writeString(String.valueOf(field.get(config)));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static Config readConfig(SnapshotReader in) throws IOException {
+        Config config    = new Config();
+        int    numFields = in.readInt();
+
+        try {
+            for (int nField = 0; nField < numFields; nField++) {
+                String name  = in.readString();
+                int    type  = in.readInt();
+                Object value;
+
+                switch (type) {
+                    case 'I':
+                        value = in.readInt();
+                        break;
+                    case 'J':
+                        value = in.readLong();
+                        break;
+                    case 'D':
+                        value = in.readDouble();
+                        break;
+                    case 'Z':
+                        value = in.readBoolean();
+                        break;
+                    default:
+                        value = in.readString();
+                }
+
+                Field field = findField(name);
+                if (field != null && !Modifier.isStatic(field.getModifiers())) {
+                    field.set(config, value);
+                }
+            }
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+
+        return config;
+    }
+
+    private static Field findField(String name) {
+        try {
+            return Config.class.getField(name);
+        } catch (NoSuchFieldException e) {
+            return null;   // parameter of another version
+        }
+    }
+}
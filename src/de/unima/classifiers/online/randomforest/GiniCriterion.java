@@ -0,0 +1,25 @@
+package de.unima.classifiers.online.randomforest;
+
+/**
+ * GINI Criterion. Weighted GINI index of both branches. The index of a branch is 1 - sum(p^2), multiplied with the
+ * weight of the branch this results in count - sum(stats^2) / count, i.e., a single division per branch.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class GiniCriterion implements SplitCriterion {
+    @Override
+    public double score(double[] trueStats, double trueCount, double[] falseStats, double falseCount) {
+        double trueSquares  = 0.0d;
+        double falseSquares = 0.0d;
+
+        for (int nClass = 0; nClass < trueStats.length; nClass++) {
+            trueSquares += trueStats[nClass] * trueStats[nClass];
+            falseSquares += falseStats[nClass] * falseStats[nClass];
+        }
+
+        double impurity = (trueCount - trueSquares * SplitCriterion.inverse(trueCount)) + (falseCount - falseSquares * SplitCriterion.inverse(falseCount));
+
+        return impurity / (trueCount + falseCount + 1e-16);
+    }
+}
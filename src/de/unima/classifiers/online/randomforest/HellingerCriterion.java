@@ -0,0 +1,29 @@
+package de.unima.classifiers.online.randomforest;
+
+/**
+ * Hellinger Criterion. Negative Hellinger distance between the branch distribution of a class and the branch
+ * distribution of the remaining classes, averaged over all classes (one-vs-rest). The distance does not depend on the
+ * class priors, hence, it is suited for skewed class distributions.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class HellingerCriterion implements SplitCriterion {
+    @Override
+    public double score(double[] trueStats, double trueCount, double[] falseStats, double falseCount) {
+        double total    = trueCount + falseCount;
+        double distance = 0.0d;
+
+        for (int nClass = 0; nClass < trueStats.length; nClass++) {
+            double count = trueStats[nClass] + falseStats[nClass];
+            double inv   = SplitCriterion.inverse(count);
+            double rest  = SplitCriterion.inverse(total - count);
+
+            double trueDiff  = Math.sqrt(trueStats[nClass] * inv) - Math.sqrt(Math.max(0.0d, trueCount - trueStats[nClass]) * rest);
+            double falseDiff = Math.sqrt(falseStats[nClass] * inv) - Math.sqrt(Math.max(0.0d, falseCount - falseStats[nClass]) * rest);
+            distance += Math.sqrt(trueDiff * trueDiff + falseDiff * falseDiff);
+        }
+
+        return -distance / trueStats.length;
+    }
+}
@@ -0,0 +1,161 @@
+package de.unima.classifiers.online.randomforest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a forest or of a single tree of it. Events (updates, evaluations, splits, out-of-bag results) are counted
+ * by striped counters while the forest is used, the structure (nodes, leaves, depths, memory) is determined by walking
+ * the trees on request. {@link #snapshot()} returns the current state, the same state is exposed as JMX MBean by
+ * {@link RandomForest#registerMBeans(String)}.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class Metrics implements MetricsMBean {
+    private static final long MAX_AGE = 1000;   // ms, of the snapshot behind the MBean attributes
+
+    private RandomTree[] trees;
+    private LongAdder    updates;
+    private LongAdder    evals;
+
+    private volatile MetricsSnapshot cached;
+
+    Metrics(RandomTree[] trees, LongAdder updates, LongAdder evals) {
+        this.trees = trees;
+        this.updates = updates;
+        this.evals = evals;
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(this.trees, this.updates.sum(), this.evals.sum());
+    }
+
+    @Override
+    public int getNumOfTrees() {
+        return this.trees.length;
+    }
+
+    @Override
+    public long getNumOfNodes() {
+        return this.getCached().getNumOfNodes();
+    }
+
+    @Override
+    public long getNumOfLeaves() {
+        return this.getCached().getNumOfLeaves();
+    }
+
+    @Override
+    public long getNumOfFrozenLeaves() {
+        return this.getCached().getNumOfFrozenLeaves();
+    }
+
+    @Override
+    public long getNumOfTests() {
+        return this.getCached().getNumOfTests();
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return this.getCached().getMaxDepth();
+    }
+
+    @Override
+    public double getMeanLeafDepth() {
+        return this.getCached().getMeanLeafDepth();
+    }
+
+    @Override
+    public long[] getLeavesPerDepth() {
+        return this.getCached().getLeavesPerDepth();
+    }
+
+    @Override
+    public long getBytes() {
+        return this.getCached().getBytes();
+    }
+
+    @Override
+    public long getPendingBytes() {
+        return this.getCached().getPendingBytes();
+    }
+
+    // the counters are read directly, i.e., they are always up to date
+
+    @Override
+    public long getUpdates() {
+        return this.updates.sum();
+    }
+
+    @Override
+    public long getEvals() {
+        return this.evals.sum();
+    }
+
+    @Override
+    public long getSplits() {
+        long sum = 0;
+        for (RandomTree tree : this.trees) {
+            sum += tree.getMetrics().splits.sum();
+        }
+
+        return sum;
+    }
+
+    @Override
+    public long getFreezes() {
+        long sum = 0;
+        for (RandomTree tree : this.trees) {
+            sum += tree.getMetrics().freezes.sum();
+        }
+
+        return sum;
+    }
+
+    @Override
+    public long getCollapses() {
+        long sum = 0;
+        for (RandomTree tree : this.trees) {
+            sum += tree.getMetrics().collapses.sum();
+        }
+
+        return sum;
+    }
+
+    @Override
+    public long getOutOfBag() {
+        long sum = 0;
+        for (RandomTree tree : this.trees) {
+            sum += tree.getMetrics().outOfBag.sum();
+        }
+
+        return sum;
+    }
+
+    @Override
+    public long getOutOfBagErrors() {
+        long sum = 0;
+        for (RandomTree tree : this.trees) {
+            sum += tree.getMetrics().outOfBagErrors.sum();
+        }
+
+        return sum;
+    }
+
+    // 0 instead of NaN as long as no out-of-bag sample was evaluated, e.g., for JMX clients that cannot plot NaN
+    @Override
+    public double getOutOfBagError() {
+        long outOfBag = this.getOutOfBag();
+        return outOfBag > 0 ? (double) this.getOutOfBagErrors() / outOfBag : 0.0d;
+    }
+
+    private MetricsSnapshot getCached() {
+        MetricsSnapshot snapshot = this.cached;
+        if (snapshot == null || System.currentTimeMillis() - snapshot.getTimestamp() > MAX_AGE) {
+            snapshot = this.snapshot();
+            this.cached = snapshot;
+        }
+
+        return snapshot;
+    }
+}
@@ -0,0 +1,47 @@
+package de.unima.classifiers.online.randomforest;
+
+/**
+ * Management interface of {@link Metrics}. The structural attributes are taken from a snapshot that is refreshed at
+ * most once per second, i.e., reading all attributes walks the trees only once.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public interface MetricsMBean {
+    int getNumOfTrees();
+
+    long getNumOfNodes();
+
+    long getNumOfLeaves();
+
+    long getNumOfFrozenLeaves();
+
+    long getNumOfTests();
+
+    int getMaxDepth();
+
+    double getMeanLeafDepth();
+
+    long[] getLeavesPerDepth();
+
+    long getBytes();
+
+    long getPendingBytes();
+
+    long getUpdates();
+
+    long getEvals();
+
+    long getSplits();
+
+    long getFreezes();
+
+    long getCollapses();
+
+    long getOutOfBag();
+
+    long getOutOfBagErrors();
+
+    // misclassified out-of-bag samples, 0 if there were none
+    double getOutOfBagError();
+}
@@ -0,0 +1,127 @@
+package de.unima.classifiers.online.randomforest;
+
+/**
+ * Metrics Snapshot. Immutable state of the metrics of a forest (or of a single tree) at a point in time. The counters
+ * are read first, then the trees are walked by {@link Footprint}; a snapshot that is taken while the forest is trained is therefore only
+ * approximately consistent. Rates, e.g., splits per second, are given by the difference of two snapshots divided by the
+ * difference of their timestamps.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class MetricsSnapshot {
+    private long      timestamp;       // System.currentTimeMillis()
+    private Footprint footprint;
+    private long      updates;
+    private long      evals;
+    private long      splits;
+    private long      freezes;
+    private long      collapses;
+    private long      outOfBag;
+    private long      outOfBagErrors;
+
+    MetricsSnapshot(RandomTree[] trees, long updates, long evals) {
+        this.timestamp = System.currentTimeMillis();
+        this.updates = updates;
+        this.evals = evals;
+
+        for (RandomTree tree : trees) {
+            TreeMetrics metrics = tree.getMetrics();
+            this.splits += metrics.splits.sum();
+            this.freezes += metrics.freezes.sum();
+            this.collapses += metrics.collapses.sum();
+            this.outOfBag += metrics.outOfBag.sum();
+            this.outOfBagErrors += metrics.outOfBagErrors.sum();
+        }
+
+        this.footprint = new Footprint(trees);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Footprint getFootprint() {
+        return footprint;
+    }
+
+    public int getNumOfTrees() {
+        return this.footprint.getNumOfTrees();
+    }
+
+    public long getNumOfNodes() {
+        return this.footprint.getNumOfNodes();
+    }
+
+    public long getNumOfLeaves() {
+        return this.footprint.getNumOfLeaves();
+    }
+
+    public long getNumOfFrozenLeaves() {
+        return this.footprint.getNumOfFrozenLeaves();
+    }
+
+    public long getNumOfTests() {
+        return this.footprint.getNumOfTests();
+    }
+
+    public int getMaxDepth() {
+        return this.footprint.getMaxDepth();
+    }
+
+    public double getMeanLeafDepth() {
+        return this.footprint.getMeanLeafDepth();
+    }
+
+    public long[] getLeavesPerDepth() {
+        return this.footprint.getLeavesPerDepth();
+    }
+
+    public long getBytes() {
+        return this.footprint.getBytes();
+    }
+
+    public long getPendingBytes() {
+        return this.footprint.getPendingBytes();
+    }
+
+    // samples passed to the forest
+    public long getUpdates() {
+        return updates;
+    }
+
+    // samples classified by the forest
+    public long getEvals() {
+        return evals;
+    }
+
+    public long getSplits() {
+        return splits;
+    }
+
+    public long getFreezes() {
+        return freezes;
+    }
+
+    public long getCollapses() {
+        return collapses;
+    }
+
+    public long getOutOfBag() {
+        return outOfBag;
+    }
+
+    public long getOutOfBagErrors() {
+        return outOfBagErrors;
+    }
+
+    // misclassified out-of-bag samples, 0 if there were none
+    public double getOutOfBagError() {
+        return this.outOfBag > 0 ? (double) this.outOfBagErrors / this.outOfBag : 0.0d;
+    }
+
+    @Override
+    public String toString() {
+        return "Trees: " + this.getNumOfTrees() + ", Nodes: " + this.getNumOfNodes() + ", Leaves: " + this.getNumOfLeaves() + " (frozen: " + this.getNumOfFrozenLeaves() + ", max depth: " + this.getMaxDepth() + "), Tests: " + this.getNumOfTests() + ", Memory: " + (this.getBytes() / 1024) + " KB (pending: " + (this.getPendingBytes() / 1024) + " KB), Updates: " + this.updates + ", Evals: " + this.evals + ", Splits: " + this.splits + ", OOB Error: " + this.getOutOfBagError();
+    }
+}
@@ -0,0 +1,47 @@
+package de.unima.classifiers.online.randomforest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Node Budget. Counts the nodes of all trees of a forest and limits their number. The trees of a forest might be
+ * trained by different threads, hence, the counter is atomic.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class NodeBudget {
+    private int           maxNodes;     // -1 = unlimited
+    private AtomicInteger numNodes;
+
+    NodeBudget(int maxNodes) {
+        this.maxNodes = maxNodes;
+        this.numNodes = new AtomicInteger();
+    }
+
+    // returns false (and acquires nothing) if the nodes would exceed the budget
+    boolean tryAcquire(int nodes) {
+        if (this.maxNodes < 0) {
+            this.numNodes.addAndGet(nodes);
+            return true;
+        }
+
+        while (true) {
+            int current = this.numNodes.get();
+            if (current + nodes > this.maxNodes) {
+                return false;
+            }
+            if (this.numNodes.compareAndSet(current, current + nodes)) {
+                return true;
+            }
+        }
+    }
+
+    // nodes that exist regardless of the budget, e.g., roots and restored trees
+    void add(int nodes) {
+        this.numNodes.addAndGet(nodes);
+    }
+
+    int getNumOfNodes() {
+        return this.numNodes.get();
+    }
+}
@@ -1,84 +1,723 @@
 package de.unima.classifiers.online.randomforest;
 
 import de.unima.classifiers.Config;
+import de.unima.classifiers.LatencyHistogram;
+import de.unima.classifiers.PoissonSampler;
+import de.unima.classifiers.RandomSource;
+import de.unima.classifiers.SplitMixRandom;
 import de.unima.classifiers.Utilities;
+import de.unima.classifiers.dataset.BinnedDataSet;
+import de.unima.classifiers.dataset.DataSet;
 import de.unima.classifiers.online.Classifier;
 import de.unima.classifiers.structure.Result;
 import de.unima.classifiers.structure.Sample;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Online Random Forest Classifier. Basis structure to train and use this classifier. The number of trees, target
- * classes, and considered features has to be predefined. There is no batch training or testing mode, i.e., each sample
- * has to be passed successively to the classifier.
+ * classes, and considered features has to be predefined. Training is online, i.e., each sample has to be passed
+ * successively to the classifier, while samples can be classified one by one or in batches. If more than one thread is
+ * configured, the trees are distributed over worker threads which are fed through queues; evaluating the forest waits
+ * until all queued samples are trained. If concurrent evaluation is configured, the forest is classified as it is,
+ * i.e., without waiting and without locks, while it is trained by other threads. Splits of nodes are published
+ * atomically, the class distributions of leaves might be read while they are updated. A forest with worker threads
+ * ('numThreads' > 1) has to be stopped by {@link #shutdown()} once it is no longer trained, otherwise its threads keep
+ * waiting for samples and keep the forest reachable.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
 public class RandomForest implements Classifier {
-    private Config       config;
-    private RandomTree[] trees;
-    private int[]        counter;
-    private int[][]      treeStats;
+    private Config             config;
+    private RandomTree[]       trees;
+    private AtomicIntegerArray counter;  // out-of-bag predictions per class, shared by the workers
+    private int[][]            treeStats;
+    private double[]           minFeatRange;
+    private double[]           maxFeatRange;
+    private PoissonSampler     poisson;
+    private TreeWorker[]       workers;
+    private Thread[]           threads;
+    private AtomicInteger      pending;
+    private ExecutorService    executor;
+    private NodeBudget         budget;
+    private LongAdder          updates;
+    private LongAdder          evals;
+    private Metrics            metrics;
+    private Metrics[]          treeMetrics;
+    private ObjectName[]       mbeans;
+
+    private LatencyHistogram updateLatency;    // null = not recorded
+    private LatencyHistogram evalLatency;
+    private LatencyHistogram splitLatency;
+
+    private volatile Throwable failure;   // first failure of a worker, null = none
+    private volatile boolean   shutdown;
+
+    private final AtomicLong                  oobVersion = new AtomicLong();             // incremented after the out-of-bag statistics changed
+    private final AtomicReference<WeightCache> weights    = new AtomicReference<>();    // null = not yet computed
+    private final Object                      lock       = new Object();
+
+    private ThreadLocal<double[]> scratch;  // confidence values of a single tree, one array per thread
 
     public RandomForest(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange) {
+        this(config, numClasses, numFeatures, minFeatRange, maxFeatRange, config.seed != -1 ? new SplitMixRandom(config.seed) : new SplitMixRandom());
+    }
+
+    /**
+     * Creates a forest for the classes, features, and feature ranges of the passed data set. The codes of a
+     * {@link BinnedDataSet} are only valid for a forest that is configured with 'binnedFeatures' and the 'numBins' of
+     * the data set, otherwise an IllegalArgumentException is thrown.
+     */
+    public RandomForest(Config config, DataSet ds) {
+        this(config, ds.getNumOfClasses(), ds.getNumOfFeatures(), ds.getMinFeatRange(), ds.getMaxFeatRange());
+
+        if (ds instanceof BinnedDataSet) {
+            int numBins = ((BinnedDataSet) ds).getNumOfBins();
+            if (!config.binnedFeatures || config.numBins != numBins) {
+                throw new IllegalArgumentException("A binned data set needs binnedFeatures = true and numBins = " + numBins + ": " + config.binnedFeatures + ", " + config.numBins);
+            }
+        }
+    }
+
+    /**
+     * Creates a forest whose trees draw their random values from streams that are split from the passed generator, i.e.,
+     * each tree has its own stream.
+     */
+    public RandomForest(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange, RandomSource random) {
         this.config = config;
+        this.minFeatRange = minFeatRange;
+        this.maxFeatRange = maxFeatRange;
 
         // init structure
         int numTrees = this.config.numTree;
         this.trees = new RandomTree[numTrees];
-        this.counter = new int[numClasses];
+        this.counter = new AtomicIntegerArray(numClasses);
         this.treeStats = new int[numTrees][numClasses];
 
         // create trees
         for (int nTree = 0; nTree < numTrees; nTree++) {
-            RandomTree tree = new RandomTree(config, numClasses, numFeatures, minFeatRange, maxFeatRange);
+            RandomTree tree = new RandomTree(config, numClasses, numFeatures, minFeatRange, maxFeatRange, random.split());
             this.trees[nTree] = tree;
         }
+
+        this.init();
+    }
+
+    // restores a forest from a snapshot
+    RandomForest(Config config, RandomTree[] trees, int[] counter, int[][] treeStats, double[] minFeatRange, double[] maxFeatRange) {
+        this.config = config;
+        this.trees = trees;
+        this.counter = new AtomicIntegerArray(counter);
+        this.treeStats = treeStats;
+        this.minFeatRange = minFeatRange;
+        this.maxFeatRange = maxFeatRange;
+
+        this.init();
+    }
+
+    private void init() {
+        int numTrees   = this.config.numTree;
+        int numClasses = this.counter.length();
+
+        this.poisson = new PoissonSampler(this.config.poissonLambda);
+        this.scratch = ThreadLocal.withInitial(() -> new double[numClasses]);
+
+        this.budget = new NodeBudget(this.config.maxNodes);
+        for (RandomTree tree : this.trees) {
+            tree.setBudget(this.budget);
+        }
+
+        this.updates = new LongAdder();
+        this.evals = new LongAdder();
+        this.metrics = new Metrics(this.trees, this.updates, this.evals);
+        this.treeMetrics = new Metrics[numTrees];
+        for (int nTree = 0; nTree < numTrees; nTree++) {
+            this.treeMetrics[nTree] = new Metrics(new RandomTree[]{this.trees[nTree]}, this.updates, this.evals);
+        }
+
+        if (this.config.recordLatency) {
+            this.updateLatency = new LatencyHistogram();
+            this.evalLatency = new LatencyHistogram();
+            this.splitLatency = new LatencyHistogram();
+            for (RandomTree tree : this.trees) {
+                tree.setSplitLatency(this.splitLatency);
+            }
+        }
+
+        // create workers, each worker owns every n-th tree
+        if (this.config.numThreads > 1) {
+            int numWorkers = Math.min(this.config.numThreads, numTrees);
+            this.workers = new TreeWorker[numWorkers];
+            this.threads = new Thread[numWorkers];
+            this.pending = new AtomicInteger();
+
+            for (int nWorker = 0; nWorker < numWorkers; nWorker++) {
+                int[] treeIds = new int[(numTrees - nWorker + numWorkers - 1) / numWorkers];
+                for (int i = 0; i < treeIds.length; i++) {
+                    treeIds[i] = nWorker + i * numWorkers;
+                }
+
+                this.workers[nWorker] = new TreeWorker(this, treeIds, this.config.trainQueueSize);
+                this.threads[nWorker] = new Thread(this.workers[nWorker], "RandomForest-Worker-" + nWorker);
+                this.threads[nWorker].setDaemon(true);
+                this.threads[nWorker].start();
+            }
+        }
     }
 
+    /**
+     * Trains the forest with the sample. With worker threads, the sample is queued for each worker. If the calling
+     * thread is interrupted meanwhile, the interrupt is restored and an IllegalStateException is thrown, since the sample
+     * might have been passed to some of the workers only.
+     */
     @Override
     public void update(Sample sample) {
-        for (int nTree = 0; nTree < this.config.numTree; nTree++) {
-            Result treeResult = new Result();
-            int    numTries   = Utilities.poisson(this.config.poissonLambda);
+        if (this.shutdown) {
+            throw new IllegalStateException("The worker threads of the forest are shut down");
+        }
 
-            // bagging based on poisson distribution, sample is ignored if numTries is 0
-            if (numTries != 0) {
-                for (int nTry = 0; nTry < numTries; nTry++) {
-                    this.trees[nTree].update(sample);
+        this.updates.increment();
+        long start = this.updateLatency != null ? System.nanoTime() : 0;
+
+        if (this.workers != null) {
+            for (TreeWorker worker : this.workers) {
+                this.pending.incrementAndGet();
+                try {
+                    worker.submit(sample);
+                } catch (InterruptedException e) {
+                    this.done();
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while the sample was queued, it was passed to a part of the trees only", e);
                 }
-            } else {    // generate stats
-                this.trees[nTree].eval(sample, treeResult);
+            }
+        } else {
+            for (int nTree = 0; nTree < this.config.numTree; nTree++) {
+                this.updateTree(nTree, sample);
+            }
+        }
 
-                int predicted = Utilities.getMaxCoeffIndex(treeResult.getConfidence());
-                this.counter[predicted]++;
+        if (this.updateLatency != null) {
+            this.updateLatency.record(System.nanoTime() - start);
+        }
+    }
 
-                if (predicted != sample.getLabel()) {
-                    this.treeStats[nTree][predicted]++;
-                }
+    /**
+     * Trains the forest with a batch of samples. Each tree processes the whole batch at once: the samples are passed
+     * level by level through the tree, i.e., each node is visited once per batch instead of once per sample. Within a
+     * tree, the samples are processed in their order (including splits and out-of-bag statistics) as by successive
+     * calls of {@link #update(Sample)}; only the poisson counts of a tree are drawn for the whole batch in advance and new
+     * nodes draw their random tests in a different order. With worker threads, the samples are queued one by one.
+     */
+    @Override
+    public void updateBatch(List<Sample> samples) {
+        if (this.workers != null) {
+            for (Sample sample : samples) {
+                this.update(sample);
             }
+            return;
+        }
+
+        this.updates.add(samples.size());
+
+        UpdateBatch batch = new UpdateBatch(samples, this.counter.length(), this.config.weightedBagging);
+        for (int nTree = 0; nTree < this.config.numTree; nTree++) {
+            this.updateTree(nTree, batch);
         }
     }
 
+    /**
+     * Classifies the sample. The confidence values are summed up in the confidence array of the passed result, i.e.,
+     * apart from creating this array if the result has none, no memory is allocated.
+     */
     @Override
     public void eval(Sample sample, Result result) {
+        this.awaitTraining();
+        this.checkFailure();
+        this.evals.increment();
+        long start = this.evalLatency != null ? System.nanoTime() : 0;
+
+        double[] weights    = this.getWeights();
+        double[] confidence = this.getConfidence(result);
         for (int nTree = 0; nTree < this.config.numTree; nTree++) {
-            Result treeResult = new Result();
-            this.trees[nTree].eval(sample, treeResult);
+            this.evalTree(nTree, sample, confidence, weights);
+        }
 
-            // weight individual results
-            if(this.config.weightIndividualResult) {
-                double[] weights = Utilities.calcWeights(this.counter, this.treeStats[nTree]);
-                result.addConfidence(treeResult.getConfidence(), weights);
-            } else {
-                // sum up individual results
-                result.addConfidence(treeResult.getConfidence());
+        // determine result
+        this.finish(result);
+
+        if (this.evalLatency != null) {
+            this.evalLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Classifies a batch of samples, i.e., results[i] receives the classification of samples.get(i). The batch is split
+     * into chunks of 'evalChunkSize' samples. If there are less chunks than threads, the trees are split into groups as
+     * well and the partial results are summed up afterwards. Without an executor and with a single thread configured,
+     * the samples are classified one after another.
+     */
+    @Override
+    public void evalBatch(final List<Sample> samples, final Result[] results) {
+        this.awaitTraining();
+        this.checkFailure();
+
+        final int numSamples = samples.size();
+        final int chunkSize  = Math.max(1, this.config.evalChunkSize);
+        int       numChunks  = (numSamples + chunkSize - 1) / chunkSize;
+
+        ExecutorService executor = this.getExecutor();
+        if (executor == null || numChunks == 0) {
+            for (int i = 0; i < numSamples; i++) {
+                this.eval(samples.get(i), results[i]);
             }
+            return;
         }
 
-        // determine result
+        this.evals.add(numSamples);
+
+        final int            numGroups = Math.max(1, Math.min(this.config.numTree, this.config.numThreads / numChunks));
+        final Result[][]     partials  = new Result[numGroups][];
+        final double[]       weights   = this.getWeights();
+        List<Callable<Void>> tasks     = new ArrayList<>();
+
+        for (int nGroup = 1; nGroup < numGroups; nGroup++) {
+            partials[nGroup] = new Result[numSamples];
+        }
+
+        for (int nChunk = 0; nChunk < numChunks; nChunk++) {
+            for (int nGroup = 0; nGroup < numGroups; nGroup++) {
+                final int from  = nChunk * chunkSize;
+                final int to    = Math.min(numSamples, from + chunkSize);
+                final int group = nGroup;
+
+                tasks.add(() -> {
+                    for (int i = from; i < to; i++) {
+                        Result target = results[i];
+                        if (group != 0) {
+                            target = new Result(this.counter.length());
+                            partials[group][i] = target;
+                        }
+
+                        // every tree of this group, i.e., every n-th tree
+                        double[] confidence = this.getConfidence(target);
+                        for (int nTree = group; nTree < this.config.numTree; nTree += numGroups) {
+                            this.evalTree(nTree, samples.get(i), confidence, weights);
+                        }
+
+                        if (numGroups == 1) {
+                            this.finish(target);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+
+        // sum up the results of the tree groups
+        if (numGroups > 1) {
+            for (int i = 0; i < numSamples; i++) {
+                for (int nGroup = 1; nGroup < numGroups; nGroup++) {
+                    results[i].addConfidence(partials[nGroup][i].getConfidence());
+                }
+                this.finish(results[i]);
+            }
+        }
+    }
+
+    @Override
+    public void evalBatch(final double[][] features, Result[] results) {
+        this.evalBatch(new AbstractList<Sample>() {
+            @Override
+            public Sample get(int index) {
+                return new Sample(features[index], -1, 1.0d, index);
+            }
+
+            @Override
+            public int size() {
+                return features.length;
+            }
+        }, results);
+    }
+
+    /**
+     * Creates a read-only snapshot of the current state of the forest that is optimized for classification. The forest
+     * itself is not changed and can be trained further, later updates are not reflected by the snapshot.
+     */
+    public CompiledForest compile() {
+        this.flush();
+
+        return new CompiledForest(this.trees, this.counter.length(), this.getWeights(), this.config.singlePrecision);
+    }
+
+    /**
+     * Sets the executor that is used by {@link #evalBatch(List, Result[])}. If no executor is set and more than one
+     * thread is configured, the common fork-join pool is used.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Blocks until all samples that were passed to {@link #update(Sample)} are trained. Does nothing if the forest is
+     * trained on the caller's thread. If training failed on a worker thread, the failure is rethrown (by this and all
+     * later calls) as IllegalStateException.
+     */
+    public void flush() {
+        if (this.workers == null) {
+            return;
+        }
+
+        synchronized (this.lock) {
+            while (this.pending.get() != 0) {
+                try {
+                    this.lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+        }
+
+        this.checkFailure();
+    }
+
+    /**
+     * Trains all queued samples and stops the worker threads. The forest can still be used for evaluation afterwards
+     * but not for training, i.e., {@link #update(Sample)} throws an IllegalStateException.
+     */
+    public void shutdown() {
+        if (this.workers == null) {
+            return;
+        }
+
+        this.shutdown = true;
+        try {
+            this.flush();
+        } finally {
+            for (Thread thread : this.threads) {    // also if training failed
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Counts the nodes, leaves, and random tests of all trees and estimates the memory they occupy. Waits until all
+     * queued samples are trained.
+     */
+    public Footprint getFootprint() {
+        this.flush();
+        return new Footprint(this.trees);
+    }
+
+    // number of nodes of all trees, maintained during training, i.e., it can be queried at any time
+    public int getNumOfNodes() {
+        return this.budget.getNumOfNodes();
+    }
+
+    /**
+     * Latency of {@link #update(Sample)} in nanoseconds, i.e., the time until the sample is trained or, with worker
+     * threads, until it is queued. Null if 'recordLatency' is not set. Samples of {@link #updateBatch(List)} are not
+     * recorded individually.
+     */
+    public LatencyHistogram getUpdateLatency() {
+        return updateLatency;
+    }
+
+    /**
+     * Latency of {@link #eval(Sample, Result)} in nanoseconds without waiting for queued samples. Null if
+     * 'recordLatency' is not set. Samples that {@link #evalBatch(List, Result[])} classifies in parallel are not
+     * recorded.
+     */
+    public LatencyHistogram getEvalLatency() {
+        return evalLatency;
+    }
+
+    // latency of node splits (scoring the tests and creating the children) in nanoseconds, null if not recorded
+    public LatencyHistogram getSplitLatency() {
+        return splitLatency;
+    }
+
+    // metrics of all trees, they can be queried at any time, i.e., also while the forest is trained
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Metrics getMetrics(int nTree) {
+        return this.treeMetrics[nTree];
+    }
+
+    /**
+     * Registers the metrics of the forest and of each tree at the platform MBean server, i.e., as
+     * "de.unima.classifiers:type=RandomForest,name=[name]" and "de.unima.classifiers:type=RandomTree,forest=[name],tree=[n]".
+     */
+    public void registerMBeans(String name) throws JMException {
+        MBeanServer  server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName[] mbeans = new ObjectName[this.trees.length + 1];
+        String       quoted = ObjectName.quote(name);
+
+        mbeans[0] = new ObjectName("de.unima.classifiers:type=RandomForest,name=" + quoted);
+        server.registerMBean(this.metrics, mbeans[0]);
+        for (int nTree = 0; nTree < this.trees.length; nTree++) {
+            mbeans[nTree + 1] = new ObjectName("de.unima.classifiers:type=RandomTree,forest=" + quoted + ",tree=" + nTree);
+            server.registerMBean(this.treeMetrics[nTree], mbeans[nTree + 1]);
+        }
+
+        this.mbeans = mbeans;
+    }
+
+    public void unregisterMBeans() throws JMException {
+        if (this.mbeans == null) {
+            return;
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName mbean : this.mbeans) {
+            if (server.isRegistered(mbean)) {
+                server.unregisterMBean(mbean);
+            }
+        }
+
+        this.mbeans = null;
+    }
+
+    private void checkFailure() {
+        Throwable failure = this.failure;
+        if (failure != null) {
+            throw new IllegalStateException("Training of the forest failed", failure);
+        }
+    }
+
+    // classification waits for queued samples, unless it may run concurrently to training
+    private void awaitTraining() {
+        if (!this.config.concurrentEval) {
+            this.flush();
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (this.executor == null && this.config.numThreads > 1) {
+            return ForkJoinPool.commonPool();
+        }
+
+        return this.executor;
+    }
+
+    // weights = null, if the individual results are not weighted
+    private void evalTree(int nTree, Sample sample, double[] confidence, double[] weights) {
+        double[] treeConfidence = this.scratch.get();
+        this.trees[nTree].eval(sample, treeConfidence);
+
+        // weight individual results
+        if (weights != null) {
+            int offset = nTree * confidence.length;
+            for (int nClass = 0; nClass < confidence.length; nClass++) {
+                confidence[nClass] += treeConfidence[nClass] * weights[offset + nClass];
+            }
+        } else {
+            // sum up individual results
+            for (int nClass = 0; nClass < confidence.length; nClass++) {
+                confidence[nClass] += treeConfidence[nClass];
+            }
+        }
+    }
+
+    /**
+     * Weights of the trees per class, they depend on the out-of-bag statistics only. Hence, they are computed once and
+     * recomputed only if the statistics changed in the meantime (a new matrix, i.e., readers are never affected). The
+     * version of the statistics is read before the matrix is computed: a change that the computation missed increments
+     * the version afterwards, i.e., such a matrix is never used again.
+     */
+    private double[] getWeights() {
+        if (!this.config.weightIndividualResult) {
+            return null;
+        }
+
+        long        version = this.oobVersion.get();
+        WeightCache cached  = this.weights.get();
+        if (cached != null && cached.version == version) {
+            return cached.weights;
+        }
+
+        int      numClasses = this.counter.length();
+        double[] weights    = new double[this.config.numTree * numClasses];
+        for (int nClass = 0; nClass < numClasses; nClass++) {
+            int absolute = this.counter.get(nClass);
+            for (int nTree = 0; nTree < this.config.numTree; nTree++) {
+                weights[nTree * numClasses + nClass] = Utilities.calcWeight(absolute, this.treeStats[nTree][nClass]);
+            }
+        }
+
+        // a matrix of newer statistics that was stored meanwhile is kept
+        if (cached == null || cached.version < version) {
+            this.weights.compareAndSet(cached, new WeightCache(weights, version));
+        }
+
+        return weights;
+    }
+
+    private double[] getConfidence(Result result) {
+        if (result.getConfidence() == null) {
+            result.setConfidence(new double[this.counter.length()]);
+        }
+
+        return result.getConfidence();
+    }
+
+    private void finish(Result result) {
         result.divideConfidenceByInteger(this.config.numTree);
         int pre = Utilities.getMaxCoeffIndex(result.getConfidence());
         result.setPrediction(pre);
     }
-}
\ No newline at end of file
+
+    void updateTree(int nTree, Sample sample) {
+        int numTries = this.poisson.sample(this.trees[nTree].getRandom());
+
+        // bagging based on poisson distribution, sample is ignored if numTries is 0
+        if (numTries != 0) {
+            if (this.config.weightedBagging) {
+                this.trees[nTree].update(sample, numTries);
+            } else {
+                for (int nTry = 0; nTry < numTries; nTry++) {
+                    this.trees[nTree].update(sample);
+                }
+            }
+        } else {    // generate stats
+            double[] treeConfidence = this.scratch.get();
+            this.trees[nTree].eval(sample, treeConfidence);
+
+            int predicted = Utilities.getMaxCoeffIndex(treeConfidence);
+            this.counter.incrementAndGet(predicted);
+
+            TreeMetrics metrics = this.trees[nTree].getMetrics();
+            metrics.outOfBag.increment();
+            if (predicted != sample.getLabel()) {
+                this.treeStats[nTree][predicted]++;
+                metrics.outOfBagErrors.increment();
+            }
+
+            if (this.config.weightIndividualResult) {
+                this.oobVersion.incrementAndGet();  // the cached weights are outdated
+            }
+        }
+    }
+
+    void updateTree(int nTree, UpdateBatch batch) {
+        batch.reset(this.poisson, this.trees[nTree].getRandom());
+        this.trees[nTree].update(batch);
+
+        // out-of-bag statistics
+        int numOutOfBag = 0;
+        int numErrors   = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            int predicted = batch.getPrediction(i);
+            if (predicted < 0) {
+                continue;
+            }
+
+            numOutOfBag++;
+            this.counter.incrementAndGet(predicted);
+            if (predicted != batch.getSample(i).getLabel()) {
+                this.treeStats[nTree][predicted]++;
+                numErrors++;
+            }
+        }
+
+        TreeMetrics metrics = this.trees[nTree].getMetrics();
+        metrics.outOfBag.add(numOutOfBag);
+        metrics.outOfBagErrors.add(numErrors);
+
+        if (numOutOfBag > 0 && this.config.weightIndividualResult) {
+            this.oobVersion.incrementAndGet();  // the cached weights are outdated
+        }
+    }
+
+    Config getConfig() {
+        return config;
+    }
+
+    RandomTree[] getTrees() {
+        return trees;
+    }
+
+    // copy of the out-of-bag predictions per class
+    int[] getCounter() {
+        int[] counter = new int[this.counter.length()];
+        for (int nClass = 0; nClass < counter.length; nClass++) {
+            counter[nClass] = this.counter.get(nClass);
+        }
+
+        return counter;
+    }
+
+    int[][] getTreeStats() {
+        return treeStats;
+    }
+
+    double[] getMinFeatRange() {
+        return minFeatRange;
+    }
+
+    double[] getMaxFeatRange() {
+        return maxFeatRange;
+    }
+
+    // keeps the first failure of the workers
+    void fail(Throwable failure) {
+        synchronized (this.lock) {
+            if (this.failure == null) {
+                this.failure = failure;
+            }
+        }
+    }
+
+    boolean hasFailed() {
+        return this.failure != null;
+    }
+
+    void done() {
+        if (this.pending.decrementAndGet() == 0) {
+            synchronized (this.lock) {
+                this.lock.notifyAll();
+            }
+        }
+    }
+
+    private static class WeightCache {
+        private final double[] weights;
+        private final long     version;    // version of the out-of-bag statistics the weights are computed from
+
+        private WeightCache(double[] weights, long version) {
+            this.weights = weights;
+            this.version = version;
+        }
+    }
+}
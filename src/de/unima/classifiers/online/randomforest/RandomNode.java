@@ -1,37 +1,40 @@
 package de.unima.classifiers.online.randomforest;
 
 import de.unima.classifiers.Config;
+import de.unima.classifiers.LatencyHistogram;
+import de.unima.classifiers.RandomSource;
 import de.unima.classifiers.Utilities;
-import de.unima.classifiers.structure.Result;
 import de.unima.classifiers.structure.Sample;
 
+import java.io.IOException;
+
 /**
  * Online Random Node. This is the main construct, i.e., covers all information and the references to the succeeding
  * subtrees, and the online random tests for this node. Each tree is initialized with such a node.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
 class RandomNode {
     private Config       config;
     private int          numClasses;
     private int          depth;
     private int          label;
-    private boolean      isLeaf;
     private double       counter;
     private double       parentCounter;
     private double[]     labelStats;
     private double[]     minFeatRange;
     private double[]     maxFeatRange;
-    private RandomNode   leftChildNode;
-    private RandomNode   rightChildNode;
     private RandomTest[] randomTests;
-    private RandomTest   bestTest;
+    private SampleBuffer sampleBuffer;  // only if refineThreshold is true, splitStats is CACHE, and binnedFeatures is false
+    private RandomTree   tree;          // grants new nodes, null = unlimited
+    private RandomSource random;
+
+    private volatile Split split;   // null = leaf; assigned once the children are complete, i.e., readers need no lock
 
-    RandomNode(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange, int depth) {
+    RandomNode(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange, int depth, RandomSource random, RandomTree tree) {
         this.numClasses = numClasses;
         this.depth = depth;
-        this.isLeaf = true;
         this.config = config;
         this.label = -1;
         this.counter = 0.0d;
@@ -39,19 +42,15 @@ class RandomNode {
         this.labelStats = new double[numClasses];
         this.minFeatRange = minFeatRange;
         this.maxFeatRange = maxFeatRange;
+        this.random = random;
+        this.tree = tree;
 
-        // create random tests
-        this.randomTests = new RandomTest[config.numRandomTests];
-        for (int nTest = 0; nTest < config.numRandomTests; nTest++) {
-            RandomTest randomTest = new RandomTest(config, numClasses, numFeatures, minFeatRange, maxFeatRange);
-            this.randomTests[nTest] = randomTest;
-        }
+        this.createRandomTests(numFeatures);
     }
 
-    private RandomNode(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange, int depth, double[] parentStats) {
+    private RandomNode(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange, int depth, RandomSource random, RandomTree tree, double[] parentStats) {
         this.numClasses = numClasses;
         this.depth = depth;
-        this.isLeaf = true;
         this.config = config;
         this.label = -1;
         this.counter = 0.0d;
@@ -59,27 +58,117 @@ class RandomNode {
         this.labelStats = parentStats;
         this.minFeatRange = minFeatRange;
         this.maxFeatRange = maxFeatRange;
+        this.random = random;
+        this.tree = tree;
         this.label = Utilities.getMaxCoeffIndex(this.labelStats);
 
-        // create random tests
-        this.randomTests = new RandomTest[config.numRandomTests];
-        for (int nTest = 0; nTest < config.numRandomTests; nTest++) {
-            this.randomTests[nTest] = new RandomTest(config, numClasses, numFeatures, minFeatRange, maxFeatRange);
+        this.createRandomTests(numFeatures);
+    }
+
+    // restores a node and its subtrees from a snapshot
+    RandomNode(Config config, int numClasses, double[] minFeatRange, double[] maxFeatRange, RandomSource random, RandomTree tree, SnapshotReader in) throws IOException {
+        this.config = config;
+        this.numClasses = numClasses;
+        this.minFeatRange = minFeatRange;
+        this.maxFeatRange = maxFeatRange;
+        this.random = random;
+        this.tree = tree;
+        this.depth = in.readInt();
+        this.label = in.readInt();
+        boolean isLeaf = in.readBoolean();
+        this.counter = in.readDouble();
+        this.parentCounter = in.readDouble();
+        this.labelStats = in.readDoubles();
+
+        if (isLeaf) {
+            if (in.getVersion() < 3) {
+                this.sampleBuffer = this.createSampleBuffer();  // filled by the caches of the tests
+            } else if (in.readBoolean()) {
+                this.sampleBuffer = new SampleBuffer(in, config.singlePrecision);
+            }
+
+            int numTests = in.readInt();  // -1 = frozen
+            if (numTests >= 0) {
+                this.randomTests = new RandomTest[numTests];
+                for (int nTest = 0; nTest < numTests; nTest++) {
+                    this.randomTests[nTest] = new RandomTest(config, numClasses, random, this.sampleBuffer, in);
+                }
+            }
+
+            if (numTests <= 0) {
+                this.sampleBuffer = null;   // e.g., a leaf at the maximum depth of version 1 or 2
+            }
+        } else {
+            RandomTest bestTest  = new RandomTest(config, numClasses, random, null, in);
+            RandomNode leftNode  = new RandomNode(config, numClasses, minFeatRange, maxFeatRange, random, tree, in);
+            RandomNode rightNode = new RandomNode(config, numClasses, minFeatRange, maxFeatRange, random, tree, in);
+            this.split = new Split(bestTest, leftNode, rightNode);
+        }
+    }
+
+    // pre-order, i.e., node, left subtree, right subtree
+    void write(SnapshotWriter out) throws IOException {
+        Split split = this.split;
+
+        out.writeInt(this.depth);
+        out.writeInt(this.label);
+        out.writeBoolean(split == null);
+        out.writeDouble(this.counter);
+        out.writeDouble(this.parentCounter);
+        out.writeDoubles(this.labelStats);
+
+        if (split == null) {
+            out.writeBoolean(this.sampleBuffer != null);
+            if (this.sampleBuffer != null) {
+                this.sampleBuffer.write(out);
+            }
+
+            if (this.randomTests == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(this.randomTests.length);
+                for (RandomTest randomTest : this.randomTests) {
+                    randomTest.write(out);
+                }
+            }
+        } else {
+            split.getTest().write(out);
+            split.getLeftChildNode().write(out);
+            split.getRightChildNode().write(out);
         }
     }
 
-    void update(Sample sample) {
-        this.counter += sample.getWeight();
-        this.labelStats[sample.getLabel()] += sample.getWeight();
+    // weight overrides the weight of the sample, e.g., to apply the poisson count of bagging in one step
+    void update(Sample sample, double weight) {
+        this.counter += weight;
+        this.labelStats[sample.getLabel()] += weight;
 
-        if (this.isLeaf) {
-            for (RandomTest randomTest : this.randomTests) {
-                randomTest.update(sample);  // update stats
+        Split split = this.split;
+
+        if (split == null) {
+            if (this.randomTests == null) {     // frozen, only the class distribution is updated
+                this.label = Utilities.getMaxCoeffIndex(this.labelStats);
+                return;
+            }
+
+            if (this.sampleBuffer != null) {
+                this.sampleBuffer.add(sample, weight);  // read by all tests
+            } else {
+                for (RandomTest randomTest : this.randomTests) {
+                    randomTest.update(sample, weight);  // update stats
+                }
             }
 
             this.label = Utilities.getMaxCoeffIndex(this.labelStats);
             if (this.shouldISplit()) {  // not pure and more than 200 samples
-                this.isLeaf = false;
+                // the latency of a split covers a collapse to make room for it
+                LatencyHistogram latency = this.tree != null ? this.tree.getSplitLatency() : null;
+                long             start   = latency != null ? System.nanoTime() : 0;
+
+                if (this.tree != null && !this.tree.requestSplit(this)) {
+                    this.freeze();  // node budget is exhausted
+                    return;
+                }
 
                 int    nTest    = 0;
                 int    minIndex = 0;
@@ -97,47 +186,200 @@ class RandomNode {
                 }
 
                 // delete everything expect best test
-                this.bestTest = this.randomTests[minIndex - 1];
+                RandomTest bestTest = this.randomTests[minIndex - 1];
                 this.randomTests = null;
+                this.sampleBuffer = null;
+
+                double[][] parentStats = bestTest.getStats();  // 0 = trueStats // 1 = falseStats
 
-                double[][] parentStats = this.bestTest.getStats();  // 0 = trueStats // 1 = falseStats
+                // create child nodes, the node stays a leaf for concurrent readers until the split is assigned
+                RandomNode rightNode = new RandomNode(this.config, this.numClasses, this.minFeatRange.length, this.minFeatRange, this.maxFeatRange, (this.depth + 1), this.random, this.tree, parentStats[0]);
+                RandomNode leftNode  = new RandomNode(this.config, this.numClasses, this.minFeatRange.length, this.minFeatRange, this.maxFeatRange, (this.depth + 1), this.random, this.tree, parentStats[1]);
+                this.split = new Split(bestTest, leftNode, rightNode);
 
-                // create child nodes
-                this.rightChildNode = new RandomNode(this.config, this.numClasses, this.minFeatRange.length, this.minFeatRange, this.maxFeatRange, (this.depth + 1), parentStats[0]);
-                this.leftChildNode = new RandomNode(this.config, this.numClasses, this.minFeatRange.length, this.minFeatRange, this.maxFeatRange, (this.depth + 1), parentStats[1]);
+                if (latency != null) {
+                    latency.record(System.nanoTime() - start);
+                }
             }
         } else {
-            if (this.bestTest.eval(sample)) {
-                this.rightChildNode.update(sample);
+            split.getChildNode(split.getTest().eval(sample)).update(sample, weight);
+        }
+    }
+
+    /**
+     * Updates the node with the samples at the positions [from, to) of the batch in their order. A leaf processes one
+     * sample after another; once the node is split, the remaining samples are added to the statistics of the node and
+     * partitioned between the children, i.e., each node is visited once per batch. Apart from the order in which new
+     * nodes draw their random tests, the result equals successive updates.
+     */
+    void update(UpdateBatch batch, int from, int to) {
+        int position = from;
+        for (; position < to && this.split == null; position++) {
+            batch.apply(this, position);
+        }
+
+        if (position == to) {
+            return;
+        }
+
+        for (int i = position; i < to; i++) {
+            Sample sample = batch.getSampleAt(i);
+            int    tries  = batch.getTriesAt(i);
+
+            if (batch.isWeightedBagging()) {
+                this.counter += tries * sample.getWeight();
+                this.labelStats[sample.getLabel()] += tries * sample.getWeight();
             } else {
-                this.leftChildNode.update(sample);
+                for (int nTry = 0; nTry < tries; nTry++) {
+                    this.counter += sample.getWeight();
+                    this.labelStats[sample.getLabel()] += sample.getWeight();
+                }
             }
         }
+
+        Split split = this.split;
+        int   mid   = batch.partition(split.getTest(), position, to);
+        split.getLeftChildNode().update(batch, position, mid);
+        split.getRightChildNode().update(batch, mid, to);
     }
 
-    void eval(Sample sample, Result result) {
-        if (this.isLeaf) {  // classify sample
-            if ((this.counter + this.parentCounter) != 0) {
-                result.setConfidence(this.labelStats.clone());
-                result.divideConfidenceByDouble(this.counter + this.parentCounter);
-                result.setPrediction(this.label);
-            } else {    // there is no information
-                double[] conf = new double[this.labelStats.length];
-                for (int i = 0; i < conf.length; i++) {
-                    conf[i] = 1.0d / ((double) this.numClasses);
-                }
-                result.setConfidence(conf);
-                result.setPrediction(0);
+    boolean isLeaf() {
+        return split == null;
+    }
+
+    // a frozen leaf has no random tests, i.e., it will not be split
+    boolean isFrozen() {
+        return split == null && randomTests == null;
+    }
+
+    int getNumOfClasses() {
+        return numClasses;
+    }
+
+    double getCounter() {
+        return counter;
+    }
+
+    int getNumOfTests() {
+        RandomTest[] randomTests = this.randomTests;
+        return randomTests != null ? randomTests.length : 0;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    // null = leaf, a reader that needs the test and both children has to read the split once
+    Split getSplit() {
+        return split;
+    }
+
+    // leaf that is responsible for the sample
+    RandomNode getLeaf(Sample sample) {
+        RandomNode node = this;
+        Split      split;
+
+        while ((split = node.split) != null) {
+            node = split.getChildNode(split.getTest().eval(sample));
+        }
+
+        return node;
+    }
+
+    // class distribution of a leaf, i.e., the confidence values that are returned by eval
+    void getConfidence(double[] confidence) {
+        double total = this.counter + this.parentCounter;
+
+        // the leaf might be updated meanwhile, hence, the values that were read are normalized by their own sum
+        if (this.config.concurrentEval) {
+            total = 0.0d;
+            for (int nClass = 0; nClass < this.numClasses; nClass++) {
+                confidence[nClass] = this.labelStats[nClass];
+                total += confidence[nClass];
+            }
+
+            for (int nClass = 0; nClass < this.numClasses; nClass++) {
+                confidence[nClass] = total != 0 ? confidence[nClass] / total : 1.0d / ((double) this.numClasses);
             }
-        } else {    // search corresponding leaf
-            if (this.bestTest.eval(sample)) {
-                this.rightChildNode.eval(sample, result);
+            return;
+        }
+
+        for (int nClass = 0; nClass < this.numClasses; nClass++) {
+            if (total != 0) {
+                confidence[nClass] = this.labelStats[nClass] / total;
             } else {
-                this.leftChildNode.eval(sample, result);
+                confidence[nClass] = 1.0d / ((double) this.numClasses);
             }
         }
     }
 
+    // removes the random tests, the leaf keeps its class distribution
+    void freeze() {
+        this.randomTests = null;
+        this.sampleBuffer = null;
+    }
+
+    // turns a node whose children are leaves into a frozen leaf, its class distribution covers both children
+    void collapse() {
+        this.freeze();
+        this.split = null;
+    }
+
+    // shallow size of the node, i.e., without the child nodes
+    long estimateMemory() {
+        long bytes = Footprint.NODE_SIZE + Footprint.array(this.labelStats.length, Double.BYTES) + this.estimatePendingMemory();
+
+        Split split = this.split;
+        if (split != null) {
+            bytes += Footprint.SPLIT_SIZE + split.getTest().estimateMemory();
+        }
+
+        return bytes;
+    }
+
+    // size of the random tests and the sample buffer of a leaf, i.e., the memory that is released by its split; the
+    // fields are read once, hence, the estimate can be taken while the node is trained
+    long estimatePendingMemory() {
+        RandomTest[] randomTests  = this.randomTests;
+        SampleBuffer sampleBuffer = this.sampleBuffer;
+        long         bytes        = 0;
+
+        if (randomTests != null) {
+            bytes += Footprint.array(randomTests.length, 4);
+            for (RandomTest randomTest : randomTests) {
+                bytes += randomTest.estimateMemory();
+            }
+        }
+        if (sampleBuffer != null) {
+            bytes += sampleBuffer.estimateMemory();
+        }
+
+        return bytes;
+    }
+
+    // the tests of a leaf share one sample buffer if thresholds are refined from cached samples, leaves at the maximum
+    // depth cannot be split and get no tests
+    private void createRandomTests(int numFeatures) {
+        if (this.depth >= this.config.maxDepth) {
+            return;
+        }
+
+        this.sampleBuffer = this.createSampleBuffer();
+        this.randomTests = new RandomTest[this.config.numRandomTests];
+        for (int nTest = 0; nTest < this.config.numRandomTests; nTest++) {
+            this.randomTests[nTest] = new RandomTest(this.config, this.numClasses, numFeatures, this.minFeatRange, this.maxFeatRange, this.random, this.sampleBuffer);
+        }
+    }
+
+    // null if the tests do not cache samples
+    private SampleBuffer createSampleBuffer() {
+        if (this.config.refineThreshold && !this.config.binnedFeatures && !"HISTOGRAM".equals(this.config.splitStats)) {
+            return new SampleBuffer(this.config.leafCacheSize, this.config.singlePrecision);
+        }
+
+        return null;
+    }
+
     private boolean shouldISplit() {
         boolean isPure = false;
 
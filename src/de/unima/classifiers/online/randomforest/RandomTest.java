@@ -1,276 +1,422 @@
 package de.unima.classifiers.online.randomforest;
 
 import de.unima.classifiers.Config;
+import de.unima.classifiers.RandomSource;
 import de.unima.classifiers.Utilities;
 import de.unima.classifiers.structure.Sample;
 
+import java.io.IOException;
+
 /**
  * Random Test. This kind of tests are generated for each new node. The number of tests are predefined and each test
  * covers a specific attribute/feature and a corresponding threshold. The threshold is generated at random. This tests
- * are used to determine the best split for a node. If a decision is made, the tests are removed.
+ * are used to determine the best split for a node. If a decision is made, the tests are removed. With 'singlePrecision',
+ * the statistics and the histogram are stored as float, i.e., exactly for integer weights up to 2^24. With
+ * 'binnedFeatures', the feature values are bin codes and the thresholds are bin indices, i.e., a sample goes to the true
+ * branch if its code is larger than the threshold. A refined threshold is then found by counting the samples per bin
+ * instead of buffering them.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
 class RandomTest {
-    private Config     config;
-    private int        numClasses;
-    private int        featureId;
-    private int        cacheCounter;
-    private double     threshold;
-    private double     trueCount;
-    private double     falseCount;
-    private double     minFeatRange;
-    private double     maxFeatRange;
-    private double[]   trueStats;
-    private double[]   falseStats;
-    private double[][] cachedValues;
-
-    RandomTest(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange) {
+    private Config         config;
+    private int            numClasses;
+    private int            featureId;
+    private int            cacheCounter;
+    private double         threshold;
+    private double         trueCount;
+    private double         falseCount;
+    private double         minFeatRange;
+    private double         maxFeatRange;
+    private double[]       trueStats;
+    private double[]       falseStats;
+    private float[]        floatTrueStats;    // instead of trueStats if singlePrecision is true
+    private float[]        floatFalseStats;
+    private SampleBuffer   buffer;            // samples of the leaf, shared by all tests of the leaf
+    private int            column;            // column of the feature in the buffer
+    private double[]       histogram;         // weight per bin and class, numClasses values per bin
+    private float[]        floatHistogram;    // instead of histogram if singlePrecision is true
+    private double         binScale;          // bins per unit of the feature range
+    private RandomSource   random;
+    private SplitCriterion criterion;
+
+    RandomTest(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange, RandomSource random, SampleBuffer buffer) {
         this.numClasses = numClasses;
         this.trueCount = 0.0d;
         this.falseCount = 0.0d;
-        this.trueStats = new double[numClasses];
-        this.falseStats = new double[numClasses];
-        this.featureId = (int) Utilities.randDouble(0, numFeatures);
+        this.featureId = random.nextInt(numFeatures);
         this.config = config;
+        this.random = random;
+        this.criterion = SplitCriterion.of(config.scoreMeasure);
+        this.setStats(new double[numClasses], new double[numClasses]);
 
-        if (config.refineThreshold) {   // cache up to 'leafCacheSize' samples and optimize threshold
-            this.cachedValues = new double[config.leafCacheSize][2];
+        if (config.refineThreshold) {   // use the last 'leafCacheSize' samples of the leaf (or a histogram) and optimize threshold
             this.cacheCounter = 0;
             this.minFeatRange = minFeatRange[this.featureId];
             this.maxFeatRange = maxFeatRange[this.featureId];
+
+            if (config.binnedFeatures || "HISTOGRAM".equals(config.splitStats)) {    // one bin per code if the features are binned
+                if (config.singlePrecision) {
+                    this.floatHistogram = new float[config.numBins * numClasses];
+                } else {
+                    this.histogram = new double[config.numBins * numClasses];
+                }
+                this.binScale = this.getBinScale();
+            } else {
+                this.buffer = buffer;
+                this.column = buffer.addColumn(this.featureId);
+            }
+        } else if (config.binnedFeatures) {
+            int minCode = (int) minFeatRange[this.featureId];
+            int maxCode = (int) maxFeatRange[this.featureId];
+            this.threshold = minCode + random.nextInt(Math.max(1, maxCode - minCode));  // bin index in [minCode, maxCode)
         } else {
-            this.threshold = Utilities.randDouble(minFeatRange[this.featureId], maxFeatRange[this.featureId]);    // Extremely Randomized Forest
+            this.threshold = random.nextDouble(minFeatRange[this.featureId], maxFeatRange[this.featureId]);    // Extremely Randomized Forest
         }
     }
 
-    void update(Sample sample) {
-        if (this.config.refineThreshold) {
-            this.cachedValues[this.cacheCounter % this.config.leafCacheSize][0] = sample.getValues()[this.featureId];
-            this.cachedValues[this.cacheCounter % this.config.leafCacheSize][1] = sample.getLabel();
-            this.cacheCounter++;
+    // restores a test from a snapshot
+    RandomTest(Config config, int numClasses, RandomSource random, SampleBuffer buffer, SnapshotReader in) throws IOException {
+        this.config = config;
+        this.numClasses = numClasses;
+        this.random = random;
+        this.criterion = SplitCriterion.of(config.scoreMeasure);
+        this.featureId = in.readInt();
+        this.cacheCounter = in.readInt();
+        this.threshold = in.readDouble();
+        this.trueCount = in.readDouble();
+        this.falseCount = in.readDouble();
+        this.minFeatRange = in.readDouble();
+        this.maxFeatRange = in.readDouble();
+        this.setStats(in.readDoubles(), in.readDoubles());
+
+        if (in.getVersion() < 3) {
+            // versions 1 and 2 cache the samples per test (feature value, label, weight), the cache moves to the buffer
+            int        numCached    = in.readInt();
+            double[][] cachedValues = numCached >= 0 ? new double[numCached][] : null;
+            for (int i = 0; i < numCached; i++) {
+                cachedValues[i] = in.readDoubles();
+            }
+
+            if (cachedValues != null && buffer != null) {
+                this.buffer = buffer;
+                this.column = buffer.restoreColumn(this.featureId, cachedValues, this.cacheCounter);
+                this.cacheCounter = 0;
+            }
         } else {
-            this.updateStats(sample, this.eval(sample));
+            this.column = in.readInt();
+            if (this.column >= 0) {
+                this.buffer = buffer;
+            }
         }
-    }
-
-    boolean eval(Sample sample) {
-        return sample.getValues()[this.featureId] > this.threshold;
-    }
 
-    double score() {
-        switch (this.config.scoreMeasure) {
-            case "GINI":
-                return scoreGINI();
-            case "INFO":
-                return scoreINFO();
-            default:
-                return scoreINFO(); // default measure
+        double[] histogram = in.getVersion() >= 2 ? in.readDoubles() : null;
+        if (histogram != null) {
+            if (config.singlePrecision) {
+                this.floatHistogram = Utilities.toFloats(histogram);
+            } else {
+                this.histogram = histogram;
+            }
+            this.binScale = this.getBinScale();
         }
     }
 
-    double[][] getStats() {
-        double[][] stats = new double[2][];
-        stats[0] = new double[this.trueStats.length];
-        stats[1] = new double[this.falseStats.length];
+    void write(SnapshotWriter out) throws IOException {
+        out.writeInt(this.featureId);
+        out.writeInt(this.cacheCounter);
+        out.writeDouble(this.threshold);
+        out.writeDouble(this.trueCount);
+        out.writeDouble(this.falseCount);
+        out.writeDouble(this.minFeatRange);
+        out.writeDouble(this.maxFeatRange);
+        out.writeDoubles(this.getTrueStats());     // float statistics are written as double, i.e., the format does not depend on the precision
+        out.writeDoubles(this.getFalseStats());
 
-        System.arraycopy(this.trueStats, 0, stats[0], 0, this.trueStats.length);
-        System.arraycopy(this.falseStats, 0, stats[1], 0, this.falseStats.length);
+        out.writeInt(this.buffer != null ? this.column : -1);
 
-        return stats;
+        out.writeDoubles(this.floatHistogram != null ? Utilities.toDoubles(this.floatHistogram) : this.histogram);
+    }
+
+    void update(Sample sample, double weight) {
+        if (this.hasHistogram()) {
+            int bin;
+            if (this.config.binnedFeatures) {
+                bin = (int) sample.getValue(this.featureId);
+                if (bin < 0 || bin >= this.config.numBins) {  // e.g., the data set was binned with more bins than 'numBins'
+                    throw new IllegalArgumentException("Bin code " + bin + " of feature " + this.featureId + " is not in [0, " + this.config.numBins + ")");
+                }
+            } else {
+                bin = (int) Math.ceil((sample.getValue(this.featureId) - this.minFeatRange) * this.binScale) - 1;
+                bin = Math.max(0, Math.min(bin, this.config.numBins - 1));
+            }
+            if (this.floatHistogram != null) {
+                this.floatHistogram[bin * this.numClasses + sample.getLabel()] += weight;
+            } else {
+                this.histogram[bin * this.numClasses + sample.getLabel()] += weight;
+            }
+            this.cacheCounter++;
+        } else if (!this.config.refineThreshold) {
+            this.updateStats(sample, weight, this.eval(sample));
+        }   // else: the sample is stored once in the buffer of the leaf
+    }
+
+    boolean eval(Sample sample) {
+        return sample.getValue(this.featureId) > this.threshold;
     }
 
-    // GINI Index score
-    private double scoreGINI() {
+    double score() {
         if (this.config.refineThreshold) {
             optimizeThreshold();
-            this.cachedValues = null;   // delete cache
+            this.buffer = null;     // release cache
+            this.histogram = null;
+            this.floatHistogram = null;
         }
 
-        double trueScore  = 0.0d;
-        double falseScore = 0.0d;
+        return this.criterion.score(this.getTrueStats(), this.trueCount, this.getFalseStats(), this.falseCount);
+    }
 
-        if (this.trueCount != 0) {
-            for (int nClass = 0; nClass < this.numClasses; nClass++) {
-                double p = this.trueStats[nClass] / this.trueCount;
-                trueScore += p * (1.0d - p);
-            }
+    long estimateMemory() {
+        double[] histogram      = this.histogram;
+        float[]  floatHistogram = this.floatHistogram;
+        int      statSize       = this.config.singlePrecision ? Float.BYTES : Double.BYTES;
+        long     bytes          = Footprint.TEST_SIZE + 2 * Footprint.array(this.numClasses, statSize);
+        if (histogram != null) {
+            bytes += Footprint.array(histogram.length, Double.BYTES);
         }
-
-        if (this.falseCount != 0) {
-            for (int nClass = 0; nClass < this.numClasses; nClass++) {
-                double p = this.falseStats[nClass] / this.falseCount;
-                falseScore += p * (1.0d - p);
-            }
+        if (floatHistogram != null) {
+            bytes += Footprint.array(floatHistogram.length, Float.BYTES);
         }
 
-        return (this.trueCount * trueScore + this.falseCount * falseScore) / (this.trueCount + this.falseCount + 1e-16);
+        return bytes;
     }
 
+    int getFeatureId() {
+        return featureId;
+    }
 
-    // Information Gain score
-    private double scoreINFO() {
-        if (config.refineThreshold) {
-            optimizeThreshold();
-            this.cachedValues = null;
-        }
-
-        double info  = 0.0;
-        double total = this.trueCount + this.falseCount;
+    double getThreshold() {
+        return threshold;
+    }
 
-        // determine entropy for each class (position)
-        for (int nClass = 0; nClass < this.numClasses; nClass++) {
-            double entropy = 0.0;
+    double[][] getStats() {
+        double[][] stats = new double[2][];
+        stats[0] = this.floatTrueStats != null ? Utilities.toDoubles(this.floatTrueStats) : this.trueStats.clone();
+        stats[1] = this.floatFalseStats != null ? Utilities.toDoubles(this.floatFalseStats) : this.falseStats.clone();
 
-            if (this.trueStats[nClass] != 0) {
-                double p = this.trueStats[nClass] / (this.trueStats[nClass] + this.falseStats[nClass]);
-                entropy += p * (Math.log(p)/Math.log(2.0d));
+        return stats;
+    }
 
-            }
-            if (this.falseStats[nClass] != 0) {
-                double p = this.falseStats[nClass] / (this.trueStats[nClass] + this.falseStats[nClass]);
-                entropy += p * (Math.log(p)/Math.log(2.0d));
-            }
+    // the statistics in double precision, a copy if they are stored as float
+    private double[] getTrueStats() {
+        return this.floatTrueStats != null ? Utilities.toDoubles(this.floatTrueStats) : this.trueStats;
+    }
 
-            entropy *= -1;
-            info += ((this.falseStats[nClass] + this.trueStats[nClass]) / (total)) * entropy;
-        }
+    private double[] getFalseStats() {
+        return this.floatFalseStats != null ? Utilities.toDoubles(this.floatFalseStats) : this.falseStats;
+    }
 
-        // determine overall entropy
-        double overEntropy = 0.0;
-        if (this.trueCount != 0) {
-            overEntropy += (this.trueCount / (total)) * (Math.log(this.trueCount / (total)/Math.log(2.0d)));
-        }
-        if (this.falseCount != 0) {
-            overEntropy += (this.falseCount / (total)) * (Math.log(this.falseCount / (total)/Math.log(2.0d)));
+    // stores the statistics in the precision of the config
+    private void setStats(double[] trueStats, double[] falseStats) {
+        if (this.config.singlePrecision) {
+            this.floatTrueStats = Utilities.toFloats(trueStats);
+            this.floatFalseStats = Utilities.toFloats(falseStats);
+        } else {
+            this.trueStats = trueStats;
+            this.falseStats = falseStats;
         }
-        overEntropy *= -1;
-
-        // return information gain
-        return -1.0 * (overEntropy - info);
     }
 
+    private boolean hasHistogram() {
+        return this.histogram != null || this.floatHistogram != null;
+    }
 
-    private void updateStats(Sample sample, boolean decision) {
+    private void updateStats(Sample sample, double weight, boolean decision) {
         if (decision) {
-            this.trueCount += sample.getWeight();
-            this.trueStats[sample.getLabel()] += sample.getWeight();
+            this.trueCount += weight;
+            if (this.floatTrueStats != null) {
+                this.floatTrueStats[sample.getLabel()] += weight;
+            } else {
+                this.trueStats[sample.getLabel()] += weight;
+            }
         } else {
-            this.falseCount += sample.getWeight();
-            this.falseStats[sample.getLabel()] += sample.getWeight();
+            this.falseCount += weight;
+            if (this.floatFalseStats != null) {
+                this.floatFalseStats[sample.getLabel()] += weight;
+            } else {
+                this.falseStats[sample.getLabel()] += weight;
+            }
         }
     }
 
     ///--------------------------------------------------TODO----------------------------------------------------------
 
     private void optimizeThreshold() {
-        double   bestThres      = this.threshold;
-        double   bestTrueCount  = this.trueCount;
-        double   bestFalseCount = this.falseCount;
-        double[] bestTrueStats  = this.trueStats;
-        double[] bestFalseStats = this.falseStats;
-
-        double bestScore = Double.MAX_VALUE; //internalScore(this.trueStats, this.trueCount, this.falseStats, this.falseCount);
-
-        for (int i = 0; i < config.genRanThres; i++) {
-            double   trueCount  = 0;
-            double   falseCount = 0;
-            double[] trueStats  = new double[numClasses];
-            double[] falseStats = new double[numClasses];
-            this.threshold = Utilities.randDouble(minFeatRange, maxFeatRange);
-
-            for (int j = 0; j < config.leafCacheSize; j++) {
-                if (cachedValues[j][0] > this.threshold) {
-                    trueCount++;
-                    trueStats[(int) cachedValues[j][1]]++;
-                } else {
-                    falseCount++;
-                    falseStats[(int) cachedValues[j][1]]++;
+        if (this.hasHistogram()) {
+            this.optimizeBinThreshold();
+        } else {
+            this.optimizeCachedThreshold();
+        }
+    }
+
+    // sorts the buffered values once, the statistics of a threshold are then given by the sorted prefix of values
+    private void optimizeCachedThreshold() {
+        SampleBuffer buffer    = this.buffer;
+        int          column    = this.column;
+        int          numCached = buffer.getNumOfRows();
+        double[]     sorted    = new double[numCached];
+        int[]        rows      = new int[numCached];
+        for (int i = 0; i < numCached; i++) {
+            sorted[i] = buffer.getValue(i, column);
+            rows[i] = i;
+        }
+        Utilities.sort(sorted, rows, 0, numCached);
+
+        // prefix[i * numClasses + nClass] = weight of 'nClass' among the first i sorted values
+        double[] prefix = new double[(numCached + 1) * this.numClasses];
+        for (int i = 0; i < numCached; i++) {
+            int offset = i * this.numClasses;
+            int row    = rows[i];
+            System.arraycopy(prefix, offset, prefix, offset + this.numClasses, this.numClasses);
+            prefix[offset + this.numClasses + buffer.getLabel(row)] += buffer.getWeight(row);
+        }
+
+        double[] trueStats  = new double[this.numClasses];
+        double[] falseStats = new double[this.numClasses];
+        double   bestThres  = this.threshold;
+        double   bestScore  = Double.MAX_VALUE;
+        int      bestPrefix = -1;   // -1 = keep the current threshold and stats
+
+        if ("EXACT".equals(this.config.refineMode)) {
+            // no split at all, i.e., every value is <= threshold
+            bestThres = numCached > 0 ? sorted[numCached - 1] : this.maxFeatRange;
+            bestScore = this.prefixScore(prefix, numCached, numCached, trueStats, falseStats);
+            bestPrefix = numCached;
+
+            // every cut between two distinct values, the threshold is the midpoint
+            for (int i = 1; i < numCached; i++) {
+                double lower = sorted[i - 1];
+                double upper = sorted[i];
+
+                if (upper > lower) {
+                    double tmpScore = this.prefixScore(prefix, i, numCached, trueStats, falseStats);
+
+                    if (tmpScore < bestScore) {
+                        double midpoint = lower + (upper - lower) * 0.5d;
+                        bestThres = midpoint < upper ? midpoint : lower;
+                        bestScore = tmpScore;
+                        bestPrefix = i;
+                    }
                 }
             }
+        } else {
+            // random thresholds, each one is located in the sorted values by binary search; thresholds between the same
+            // two values result in the same split, i.e., each split is scored only once
+            boolean[] isScored = new boolean[numCached + 1];
 
-            double tmpScore = internalScore(trueStats, trueCount, falseStats, falseCount);
+            for (int i = 0; i < this.config.genRanThres; i++) {
+                double threshold = this.random.nextDouble(this.minFeatRange, this.maxFeatRange);
+                int    numFalse  = countLessOrEqual(sorted, threshold);
 
-            if (tmpScore < bestScore) {
-                bestThres = this.threshold;
-                bestScore = tmpScore;
-                bestTrueCount = trueCount;
-                bestFalseCount = falseCount;
-                bestTrueStats = trueStats;
-                bestFalseStats = falseStats;
+                if (isScored[numFalse]) {
+                    continue;
+                }
+                isScored[numFalse] = true;
+
+                double tmpScore = this.prefixScore(prefix, numFalse, numCached, trueStats, falseStats);
+
+                if (tmpScore < bestScore) {
+                    bestThres = threshold;
+                    bestScore = tmpScore;
+                    bestPrefix = numFalse;
+                }
             }
         }
 
-        this.threshold = bestThres;
-        this.trueCount = bestTrueCount;
-        this.falseCount = bestFalseCount;
-        this.trueStats = bestTrueStats;
-        this.falseStats = bestFalseStats;
+        if (bestPrefix < 0) {
+            return;
+        }
+
+        this.setSplit(bestThres, prefix, bestPrefix, numCached);
     }
 
-    private double internalScore(double[] trueStats, double trueCount, double[] falseStats, double falseCount) {
-        switch (this.config.scoreMeasure) {
-            case "GINI":
-                return internalGini(trueStats, trueCount, falseStats, falseCount);
-            case "INFO":
-                return internalInfo(trueStats, trueCount, falseStats, falseCount);
-            default:
-                return 0.0d;
+    // bin b holds the values in (min + b / binScale, min + (b + 1) / binScale] or the code b if the features are binned,
+    // i.e., each bin boundary is a threshold
+    private void optimizeBinThreshold() {
+        int      numBins = this.config.numBins;
+        double[] prefix  = new double[(numBins + 1) * this.numClasses];
+        for (int i = 0; i < numBins * this.numClasses; i++) {
+            prefix[i + this.numClasses] = prefix[i] + (this.floatHistogram != null ? this.floatHistogram[i] : this.histogram[i]);
         }
-    }
 
-    private double internalGini(double[] trueStats, double trueCount, double[] falseStats, double falseCount) {
-        double trueScore  = 0.0d;
-        double falseScore = 0.0d;
+        double[] trueStats  = new double[this.numClasses];
+        double[] falseStats = new double[this.numClasses];
 
-        for (int nClass = 0; nClass < this.numClasses; nClass++) {
-            if (trueCount != 0) {
-                double p = trueStats[nClass] / trueCount;
-                trueScore += p * (1.0d - p);
-            }
+        // no split at all, i.e., every value is <= threshold
+        double bestThres  = this.maxFeatRange;
+        double bestScore  = this.prefixScore(prefix, numBins, numBins, trueStats, falseStats);
+        int    bestPrefix = numBins;
+
+        for (int nBin = 1; nBin < numBins; nBin++) {
+            double tmpScore = this.prefixScore(prefix, nBin, numBins, trueStats, falseStats);
 
-            if (falseCount != 0) {
-                double p = falseStats[nClass] / falseCount;
-                falseScore += p * (1.0d - p);
+            if (tmpScore < bestScore) {
+                bestThres = this.config.binnedFeatures ? nBin - 1 : this.minFeatRange + nBin / this.binScale;
+                bestScore = tmpScore;
+                bestPrefix = nBin;
             }
         }
 
-        return (trueCount * trueScore + falseCount * falseScore) / (trueCount + falseCount + 1e-16);
+        this.setSplit(bestThres, prefix, bestPrefix, numBins);
     }
 
-    private double internalInfo(double[] trueStats, double trueCount, double[] falseStats, double falseCount) {
-        double info  = 0.0;
-        double total = trueCount + falseCount;
+    private void setSplit(double threshold, double[] prefix, int numFalse, int numTotal) {
+        double[] trueStats  = new double[this.numClasses];
+        double[] falseStats = new double[this.numClasses];
 
-        for (int nClass = 0; nClass < this.numClasses; nClass++) {
-
-            double entropy = 0.0;
+        this.threshold = threshold;
+        this.prefixScore(prefix, numFalse, numTotal, trueStats, falseStats);
+        this.setStats(trueStats, falseStats);
+        this.trueCount = Utilities.getSum(trueStats);
+        this.falseCount = Utilities.getSum(falseStats);
+    }
 
-            if (trueStats[nClass] != 0) {
-                double p = trueStats[nClass] / (trueStats[nClass] + falseStats[nClass]);
-                entropy += p * Math.log(p);
+    private double getBinScale() {
+        double range = this.maxFeatRange - this.minFeatRange;
+        return range > 0 ? this.config.numBins / range : 0.0d;
+    }
 
-            }
-            if (falseStats[nClass] != 0) {
-                double p = falseStats[nClass] / (trueStats[nClass] + falseStats[nClass]);
-                entropy += p * Math.log(p);
-            }
+    // fills the stats of the split where the first 'numFalse' sorted values (or bins) are <= threshold, returns its score
+    private double prefixScore(double[] prefix, int numFalse, int numTotal, double[] trueStats, double[] falseStats) {
+        int    falseOffset = numFalse * this.numClasses;
+        int    totalOffset = numTotal * this.numClasses;
+        double trueCount   = 0.0d;
+        double falseCount  = 0.0d;
 
-            entropy *= -1;
-            info += ((falseStats[nClass] + trueStats[nClass]) / (total)) * entropy;
+        for (int nClass = 0; nClass < this.numClasses; nClass++) {
+            falseStats[nClass] = prefix[falseOffset + nClass];
+            trueStats[nClass] = prefix[totalOffset + nClass] - falseStats[nClass];
+            falseCount += falseStats[nClass];
+            trueCount += trueStats[nClass];
         }
 
-        double overEntropy = 0.0;
-        if (trueCount != 0) {
-            overEntropy += (trueCount / (total)) * Math.log(trueCount / (total));
-        }
-        if (falseCount != 0) {
-            overEntropy += (falseCount / (total)) * Math.log(falseCount / (total));
-        }
+        return this.criterion.score(trueStats, trueCount, falseStats, falseCount);
+    }
 
-        overEntropy *= -1;
+    // number of sorted values that are <= threshold
+    private static int countLessOrEqual(double[] sorted, double threshold) {
+        int low  = 0;
+        int high = sorted.length;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= threshold) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
 
-        return -1.0 * (overEntropy - info);
+        return low;
     }
 }
\ No newline at end of file
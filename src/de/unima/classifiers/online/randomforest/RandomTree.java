@@ -1,31 +1,185 @@
 package de.unima.classifiers.online.randomforest;
 
 import de.unima.classifiers.Config;
+import de.unima.classifiers.LatencyHistogram;
+import de.unima.classifiers.RandomSource;
+import de.unima.classifiers.SplitMixRandom;
+import de.unima.classifiers.Utilities;
 import de.unima.classifiers.online.Classifier;
 import de.unima.classifiers.structure.Result;
 import de.unima.classifiers.structure.Sample;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 /**
  * Online Random Tree. This class comprises only the root node whereas the root node redirects to the subtrees.
  * This is a binary tree.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
 class RandomTree implements Classifier {
-    private RandomNode rootNode;
+    private Config           config;
+    private RandomNode       rootNode;
+    private RandomSource     random;
+    private NodeBudget       budget;        // null = unlimited
+    private TreeMetrics      metrics = new TreeMetrics();
+    private LatencyHistogram splitLatency;  // null = not recorded
+
+    RandomTree(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange, RandomSource random) {
+        this.config = config;
+        this.random = random;
+        this.rootNode = new RandomNode(config, numClasses, numFeatures, minFeatRange, maxFeatRange, 0, random, this);
+    }
 
-    RandomTree(Config config, int numClasses, int numFeatures, double[] minFeatRange, double[] maxFeatRange) {
-        this.rootNode = new RandomNode(config, numClasses, numFeatures, minFeatRange, maxFeatRange, 0);
+    // restores a tree from a snapshot, a generator that cannot be persisted is replaced by a new one
+    RandomTree(Config config, int numClasses, double[] minFeatRange, double[] maxFeatRange, SnapshotReader in) throws IOException {
+        this.config = config;
+
+        if (in.readBoolean()) {
+            this.random = new SplitMixRandom(in.readLong());
+        } else {
+            this.random = new SplitMixRandom();
+        }
+
+        this.rootNode = new RandomNode(config, numClasses, minFeatRange, maxFeatRange, this.random, this, in);
+    }
+
+    void write(SnapshotWriter out) throws IOException {
+        out.writeBoolean(this.random instanceof SplitMixRandom);
+        if (this.random instanceof SplitMixRandom) {
+            out.writeLong(((SplitMixRandom) this.random).getState());
+        }
+
+        this.rootNode.write(out);
     }
 
     @Override
     public void update(Sample sample) {
-        this.rootNode.update(sample);
+        this.rootNode.update(sample, sample.getWeight());
+    }
+
+    // update with a multiple of the sample weight, equals 'numTries' successive updates
+    void update(Sample sample, int numTries) {
+        this.rootNode.update(sample, numTries * sample.getWeight());
+    }
+
+    void update(UpdateBatch batch) {
+        this.rootNode.update(batch, 0, batch.size());
     }
 
+    // writes the confidence values into the confidence array of the result, it is only created if the result has none
     @Override
     public void eval(Sample sample, Result result) {
-        this.rootNode.eval(sample, result);
+        if (result.getConfidence() == null) {
+            result.setConfidence(new double[this.rootNode.getNumOfClasses()]);
+        }
+
+        this.eval(sample, result.getConfidence());
+        result.setPrediction(Utilities.getMaxCoeffIndex(result.getConfidence()));
+    }
+
+    // writes the confidence values into the passed array instead of allocating a result
+    void eval(Sample sample, double[] confidence) {
+        this.rootNode.getLeaf(sample).getConfidence(confidence);
+    }
+
+    // the existing nodes of the tree are added to the budget
+    void setBudget(NodeBudget budget) {
+        this.budget = budget;
+        budget.add(this.getNumOfNodes());
+    }
+
+    /**
+     * Requests the two child nodes of a leaf that is about to be split. If the budget is exhausted and collapsing is
+     * enabled, the least visited node of this tree whose children are leaves is turned into a leaf, i.e., its two
+     * children are handed over to the more visited leaf.
+     */
+    boolean requestSplit(RandomNode leaf) {
+        if (this.budget == null || this.budget.tryAcquire(2)) {
+            this.metrics.splits.increment();
+            return true;
+        }
+
+        RandomNode candidate = this.config.collapseSubtrees ? this.getCollapseCandidate(leaf) : null;
+        if (candidate == null || candidate.getCounter() >= leaf.getCounter()) {
+            this.metrics.freezes.increment();
+            return false;
+        }
+
+        candidate.collapse();
+        this.metrics.collapses.increment();
+        this.metrics.splits.increment();
+
+        return true;
+    }
+
+    int getNumOfNodes() {
+        int               numNodes = 0;
+        Deque<RandomNode> stack    = new ArrayDeque<>();
+        stack.push(this.rootNode);
+
+        while (!stack.isEmpty()) {
+            Split split = stack.pop().getSplit();
+            numNodes++;
+
+            if (split != null) {
+                stack.push(split.getLeftChildNode());
+                stack.push(split.getRightChildNode());
+            }
+        }
+
+        return numNodes;
+    }
+
+    RandomNode getRootNode() {
+        return rootNode;
+    }
+
+    RandomSource getRandom() {
+        return random;
+    }
+
+    TreeMetrics getMetrics() {
+        return metrics;
+    }
+
+    LatencyHistogram getSplitLatency() {
+        return splitLatency;
+    }
+
+    void setSplitLatency(LatencyHistogram splitLatency) {
+        this.splitLatency = splitLatency;
+    }
+
+    // least visited node whose children are leaves, except the parent of the passed leaf
+    private RandomNode getCollapseCandidate(RandomNode leaf) {
+        RandomNode        candidate = null;
+        Deque<RandomNode> stack     = new ArrayDeque<>();
+        stack.push(this.rootNode);
+
+        while (!stack.isEmpty()) {
+            RandomNode node  = stack.pop();
+            Split      split = node.getSplit();
+            if (split == null) {
+                continue;
+            }
+
+            RandomNode left  = split.getLeftChildNode();
+            RandomNode right = split.getRightChildNode();
+
+            if (left.isLeaf() && right.isLeaf() && left != leaf && right != leaf) {
+                if (candidate == null || node.getCounter() < candidate.getCounter()) {
+                    candidate = node;
+                }
+            } else {
+                stack.push(left);
+                stack.push(right);
+            }
+        }
+
+        return candidate;
     }
 }
\ No newline at end of file
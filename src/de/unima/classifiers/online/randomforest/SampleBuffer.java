@@ -0,0 +1,176 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.Utilities;
+import de.unima.classifiers.structure.Sample;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Sample Buffer. Ring buffer of the last samples of a leaf, shared by all random tests of the leaf. Only the features
+ * that are covered by the tests (columns) are stored, the label and the weight are stored once per sample. With
+ * 'singlePrecision', the feature values are stored as float.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class SampleBuffer {
+    private int      capacity;
+    private int      counter;
+    private int      numColumns;
+    private boolean  singlePrecision;
+    private int[]    features;      // feature index per column
+    private double[] values;        // row-major, allocated with the first sample, i.e., once all columns are known
+    private float[]  floatValues;   // instead of values if singlePrecision is true
+    private int[]    labels;
+    private double[] weights;
+
+    SampleBuffer(int capacity, boolean singlePrecision) {
+        this.capacity = capacity;
+        this.singlePrecision = singlePrecision;
+        this.features = new int[0];
+    }
+
+    // restores a buffer from a snapshot
+    SampleBuffer(SnapshotReader in, boolean singlePrecision) throws IOException {
+        this.capacity = in.readInt();
+        this.counter = in.readInt();
+        this.singlePrecision = singlePrecision;
+        this.features = in.readInts();
+        this.numColumns = this.features.length;
+
+        double[] values = in.readDoubles();
+        if (values != null && singlePrecision) {
+            this.floatValues = Utilities.toFloats(values);
+        } else {
+            this.values = values;
+        }
+
+        this.labels = in.readInts();
+        this.weights = in.readDoubles();
+    }
+
+    void write(SnapshotWriter out) throws IOException {
+        out.writeInt(this.capacity);
+        out.writeInt(this.counter);
+        out.writeInts(Arrays.copyOf(this.features, this.numColumns));
+        out.writeDoubles(this.floatValues != null ? Utilities.toDoubles(this.floatValues) : this.values);    // the format does not depend on the precision
+        out.writeInts(this.labels);
+        out.writeDoubles(this.weights);
+    }
+
+    // returns the column of the feature, tests on the same feature share a column
+    int addColumn(int featureId) {
+        for (int nColumn = 0; nColumn < this.numColumns; nColumn++) {
+            if (this.features[nColumn] == featureId) {
+                return nColumn;
+            }
+        }
+
+        if (this.numColumns == this.features.length) {
+            this.features = Arrays.copyOf(this.features, Math.max(4, this.numColumns * 2));
+        }
+        this.features[this.numColumns] = featureId;
+
+        return this.numColumns++;
+    }
+
+    /**
+     * Adds a column with the cached values of a test of snapshot version 1 or 2, i.e., the feature value, label, and
+     * weight per row of a ring buffer that was filled 'counter' times. The tests of a leaf cached the same samples, hence,
+     * the labels and weights are taken from the first column.
+     */
+    int restoreColumn(int featureId, double[][] cachedValues, int counter) {
+        int numColumns = this.numColumns;
+        int column     = this.addColumn(featureId);
+        int numRows    = Math.min(counter, Math.min(this.capacity, cachedValues.length));
+        if (column < numColumns || numRows == 0) {
+            return column;  // tests on the same feature cached the same values
+        }
+
+        if (this.labels == null) {
+            this.counter = counter;
+            this.labels = new int[this.capacity];
+            this.weights = new double[this.capacity];
+            for (int row = 0; row < numRows; row++) {
+                this.labels[row] = (int) cachedValues[row][1];
+                this.weights[row] = cachedValues[row][2];
+            }
+        }
+
+        // the values are row-major, i.e., they are copied into a layout with one more column
+        double[] values = new double[this.capacity * this.numColumns];
+        for (int row = 0; row < numRows; row++) {
+            for (int nColumn = 0; nColumn < numColumns; nColumn++) {
+                values[row * this.numColumns + nColumn] = this.floatValues != null ? this.floatValues[row * numColumns + nColumn] : this.values[row * numColumns + nColumn];
+            }
+            values[row * this.numColumns + column] = cachedValues[row][0];
+        }
+
+        if (this.singlePrecision) {
+            this.floatValues = Utilities.toFloats(values);
+        } else {
+            this.values = values;
+        }
+
+        return column;
+    }
+
+    void add(Sample sample, double weight) {
+        if (this.labels == null) {
+            if (this.singlePrecision) {
+                this.floatValues = new float[this.capacity * this.numColumns];
+            } else {
+                this.values = new double[this.capacity * this.numColumns];
+            }
+            this.weights = new double[this.capacity];
+            this.labels = new int[this.capacity];
+        }
+
+        int row    = this.counter % this.capacity;
+        int offset = row * this.numColumns;
+        if (this.floatValues != null) {
+            for (int nColumn = 0; nColumn < this.numColumns; nColumn++) {
+                this.floatValues[offset + nColumn] = (float) sample.getValue(this.features[nColumn]);
+            }
+        } else {
+            for (int nColumn = 0; nColumn < this.numColumns; nColumn++) {
+                this.values[offset + nColumn] = sample.getValue(this.features[nColumn]);
+            }
+        }
+        this.labels[row] = sample.getLabel();
+        this.weights[row] = weight;
+        this.counter++;
+    }
+
+    long estimateMemory() {
+        int[] labels = this.labels;     // read once, the buffer might be filled concurrently
+        long  bytes  = Footprint.BUFFER_SIZE + Footprint.array(this.features.length, Integer.BYTES);
+        if (labels != null) {
+            int valueSize = this.singlePrecision ? Float.BYTES : Double.BYTES;
+            bytes += Footprint.array(this.capacity * this.numColumns, valueSize) + Footprint.array(this.capacity, Integer.BYTES) + Footprint.array(this.capacity, Double.BYTES);
+        }
+
+        return bytes;
+    }
+
+    int getNumOfRows() {
+        return this.labels == null ? 0 : Math.min(this.counter, this.capacity);
+    }
+
+    double getValue(int row, int column) {
+        if (this.floatValues != null) {
+            return this.floatValues[row * this.numColumns + column];
+        }
+
+        return this.values[row * this.numColumns + column];
+    }
+
+    int getLabel(int row) {
+        return this.labels[row];
+    }
+
+    double getWeight(int row) {
+        return this.weights[row];
+    }
+}
@@ -0,0 +1,130 @@
+package de.unima.classifiers.online.randomforest;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the primitive values of a model snapshot from a memory-mapped file. Files are mapped window by window, i.e.,
+ * the size of a snapshot is not limited by the size of a single mapping.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class SnapshotReader implements Closeable {
+    private static final long WINDOW_SIZE = 1L << 28;   // 256 MB per mapping
+
+    private FileChannel channel;
+    private ByteBuffer  buffer;
+    private long        bufferPos;  // position of the window in the file
+    private int         version;    // format version of the snapshot, older versions are converted while reading
+
+    SnapshotReader(File file) throws IOException {
+        this.channel = new RandomAccessFile(file, "r").getChannel();
+        this.bufferPos = 0;
+        this.buffer = ByteBuffer.allocate(0);
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    void setVersion(int version) {
+        this.version = version;
+    }
+
+    int readInt() throws IOException {
+        this.ensure(Integer.BYTES);
+        return this.buffer.getInt();
+    }
+
+    long readLong() throws IOException {
+        this.ensure(Long.BYTES);
+        return this.buffer.getLong();
+    }
+
+    double readDouble() throws IOException {
+        this.ensure(Double.BYTES);
+        return this.buffer.getDouble();
+    }
+
+    boolean readBoolean() throws IOException {
+        this.ensure(1);
+        return this.buffer.get() != 0;
+    }
+
+    String readString() throws IOException {
+        int length = this.readInt();
+        this.checkLength(length, 1);
+
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < bytes.length; i++) {
+            this.ensure(1);
+            bytes[i] = this.buffer.get();
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    double[] readDoubles() throws IOException {
+        int length = this.readInt();
+        if (length == -1) {
+            return null;
+        }
+        this.checkLength(length, Double.BYTES);
+
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = this.readDouble();
+        }
+
+        return values;
+    }
+
+    int[] readInts() throws IOException {
+        int length = this.readInt();
+        if (length == -1) {
+            return null;
+        }
+        this.checkLength(length, Integer.BYTES);
+
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = this.readInt();
+        }
+
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    // a corrupted length must not be allocated, it has to fit into the rest of the file
+    private void checkLength(int length, int bytesPerValue) throws IOException {
+        long remaining = this.channel.size() - this.bufferPos - this.buffer.position();
+        if (length < 0 || (long) length * bytesPerValue > remaining) {
+            throw new IOException("Invalid length in snapshot: " + length);
+        }
+    }
+
+    // maps the next window if the current one has less than 'bytes' left
+    private void ensure(int bytes) throws IOException {
+        if (this.buffer.remaining() >= bytes) {
+            return;
+        }
+
+        this.bufferPos += this.buffer.position();
+        long size = this.channel.size();
+        if (size - this.bufferPos < bytes) {
+            throw new IOException("Unexpected end of snapshot");
+        }
+
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, this.bufferPos, Math.min(WINDOW_SIZE, size - this.bufferPos));
+    }
+}
@@ -0,0 +1,128 @@
+package de.unima.classifiers.online.randomforest;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the primitive values of a model snapshot through a direct buffer into a file channel. The values are written
+ * into a temporary file next to the destination, {@link #commit()} forces it to the disk and moves it atomically onto
+ * the destination. Until then, i.e., if writing fails or the process crashes, the previous file is kept unchanged.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class SnapshotWriter implements Closeable {
+    private Path        target;
+    private Path        tmp;
+    private FileChannel channel;
+    private ByteBuffer  buffer;
+    private boolean     committed;
+
+    SnapshotWriter(File file) throws IOException {
+        this.target = file.getAbsoluteFile().toPath();
+        this.tmp = this.target.resolveSibling(this.target.getFileName() + "." + System.nanoTime() + ".tmp");
+
+        this.channel = FileChannel.open(this.tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(1 << 20);
+    }
+
+    void writeInt(int value) throws IOException {
+        this.ensure(Integer.BYTES);
+        this.buffer.putInt(value);
+    }
+
+    void writeLong(long value) throws IOException {
+        this.ensure(Long.BYTES);
+        this.buffer.putLong(value);
+    }
+
+    void writeDouble(double value) throws IOException {
+        this.ensure(Double.BYTES);
+        this.buffer.putDouble(value);
+    }
+
+    void writeBoolean(boolean value) throws IOException {
+        this.ensure(1);
+        this.buffer.put((byte) (value ? 1 : 0));
+    }
+
+    void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeInt(bytes.length);
+        for (byte b : bytes) {
+            this.ensure(1);
+            this.buffer.put(b);
+        }
+    }
+
+    // length followed by the values, -1 = null
+    void writeDoubles(double[] values) throws IOException {
+        if (values == null) {
+            this.writeInt(-1);
+            return;
+        }
+
+        this.writeInt(values.length);
+        for (double value : values) {
+            this.writeDouble(value);
+        }
+    }
+
+    void writeInts(int[] values) throws IOException {
+        if (values == null) {
+            this.writeInt(-1);
+            return;
+        }
+
+        this.writeInt(values.length);
+        for (int value : values) {
+            this.writeInt(value);
+        }
+    }
+
+    // replaces the destination by the written file
+    void commit() throws IOException {
+        this.flush();
+        this.channel.force(false);
+        this.channel.close();
+
+        Files.move(this.tmp, this.target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        this.committed = true;
+    }
+
+    // discards the written file if it was not committed
+    @Override
+    public void close() throws IOException {
+        if (this.committed) {
+            return;
+        }
+
+        try {
+            this.channel.close();
+        } finally {
+            Files.deleteIfExists(this.tmp);
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (this.buffer.remaining() < bytes) {
+            this.flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
@@ -0,0 +1,37 @@
+package de.unima.classifiers.online.randomforest;
+
+/**
+ * Split of a node, i.e., the selected random test and the two child nodes. A split is immutable and completely built
+ * before it is assigned to its node, hence, a thread that reads the split of a node sees either no split or a split
+ * with both children.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class Split {
+    private final RandomTest test;
+    private final RandomNode leftChildNode;     // test is false
+    private final RandomNode rightChildNode;    // test is true
+
+    Split(RandomTest test, RandomNode leftChildNode, RandomNode rightChildNode) {
+        this.test = test;
+        this.leftChildNode = leftChildNode;
+        this.rightChildNode = rightChildNode;
+    }
+
+    RandomTest getTest() {
+        return test;
+    }
+
+    RandomNode getLeftChildNode() {
+        return leftChildNode;
+    }
+
+    RandomNode getRightChildNode() {
+        return rightChildNode;
+    }
+
+    RandomNode getChildNode(boolean decision) {
+        return decision ? rightChildNode : leftChildNode;
+    }
+}
@@ -0,0 +1,37 @@
+package de.unima.classifiers.online.randomforest;
+
+/**
+ * Split Criterion. Scores the split of a random test by the class distributions of its two branches, the lower the
+ * score, the better the split. Scores have to be less than 1. The criterion is resolved once per test by
+ * {@link #of(String)}, i.e., scoring a split does not depend on the name of the measure. Implementations are stateless
+ * and shared by all tests; a new criterion only has to be added to {@link #of(String)}.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+interface SplitCriterion {
+    SplitCriterion GINI      = new GiniCriterion();
+    SplitCriterion INFO      = new EntropyCriterion();
+    SplitCriterion HELLINGER = new HellingerCriterion();
+
+    // trueCount and falseCount are the sums of trueStats and falseStats
+    double score(double[] trueStats, double trueCount, double[] falseStats, double falseCount);
+
+    // resolves Config.scoreMeasure, unknown measures fall back to information gain
+    static SplitCriterion of(String scoreMeasure) {
+        switch (scoreMeasure) {
+            case "GINI":
+                return GINI;
+            case "HELLINGER":
+                return HELLINGER;
+            case "INFO":
+            default:
+                return INFO;
+        }
+    }
+
+    // 1 / count, 0 counts result in a huge but finite value, i.e., 0 / count is still 0
+    static double inverse(double count) {
+        return 1.0d / Math.max(count, Double.MIN_NORMAL);
+    }
+}
@@ -0,0 +1,18 @@
+package de.unima.classifiers.online.randomforest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tree Metrics. Event counters of a tree that are updated during training. The counters are striped, i.e., they are
+ * cheap to update from the training threads and can be read at any time from other threads, e.g., by JMX.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class TreeMetrics {
+    final LongAdder splits         = new LongAdder();
+    final LongAdder freezes        = new LongAdder();  // leaves frozen because the node budget was exhausted
+    final LongAdder collapses      = new LongAdder();
+    final LongAdder outOfBag       = new LongAdder();  // samples the tree was evaluated on instead of trained
+    final LongAdder outOfBagErrors = new LongAdder();
+}
@@ -0,0 +1,54 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.structure.Sample;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Tree Worker. Owns a fixed subset of the trees of a forest and trains them on its own thread. Samples are received
+ * through a bounded queue, i.e., the caller is blocked if the worker falls behind. The out-of-bag predictions are counted
+ * in the shared counter of the forest, i.e., they are visible to eval at once. If training fails, the first failure is reported to the
+ * forest, which rethrows it to the caller; the worker keeps taking samples without training them, i.e., callers are
+ * not blocked.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class TreeWorker implements Runnable {
+    private RandomForest          forest;
+    private int[]                 treeIds;
+    private BlockingQueue<Sample> queue;
+
+    TreeWorker(RandomForest forest, int[] treeIds, int queueSize) {
+        this.forest = forest;
+        this.treeIds = treeIds;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    void submit(Sample sample) throws InterruptedException {
+        this.queue.put(sample);
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Sample sample;
+            try {
+                sample = this.queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            try {
+                for (int nTree = 0; nTree < this.treeIds.length && !this.forest.hasFailed(); nTree++) {
+                    this.forest.updateTree(this.treeIds[nTree], sample);
+                }
+            } catch (RuntimeException | Error e) {
+                this.forest.fail(e);
+            } finally {
+                this.forest.done();
+            }
+        }
+    }
+}
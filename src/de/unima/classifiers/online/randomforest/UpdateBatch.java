@@ -0,0 +1,105 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.PoissonSampler;
+import de.unima.classifiers.RandomSource;
+import de.unima.classifiers.Utilities;
+import de.unima.classifiers.structure.Sample;
+
+import java.util.List;
+
+/**
+ * Update Batch. A batch of samples that is passed through a tree at once. The positions of the batch refer to the
+ * samples in their original order; each node partitions its range of positions between its children, i.e., the
+ * samples of a node are always in their original order. The batch is reused for each tree of a forest.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class UpdateBatch {
+    private List<Sample> samples;
+    private boolean      weightedBagging;
+    private int[]        tries;         // poisson count per sample, 0 = out-of-bag
+    private int[]        predictions;   // out-of-bag prediction per sample, -1 = none
+    private int[]        order;         // sample per position
+    private int[]        temp;
+    private double[]     confidence;
+
+    UpdateBatch(List<Sample> samples, int numClasses, boolean weightedBagging) {
+        this.samples = samples;
+        this.weightedBagging = weightedBagging;
+        this.tries = new int[samples.size()];
+        this.predictions = new int[samples.size()];
+        this.order = new int[samples.size()];
+        this.temp = new int[samples.size()];
+        this.confidence = new double[numClasses];
+    }
+
+    // prepares the batch for the next tree, i.e., draws the poisson counts of the samples for this tree
+    void reset(PoissonSampler poisson, RandomSource random) {
+        for (int i = 0; i < this.order.length; i++) {
+            this.tries[i] = poisson.sample(random);
+            this.predictions[i] = -1;
+            this.order[i] = i;
+        }
+    }
+
+    int size() {
+        return this.order.length;
+    }
+
+    Sample getSample(int index) {
+        return this.samples.get(index);
+    }
+
+    int getPrediction(int index) {
+        return this.predictions[index];
+    }
+
+    // updates the leaf with the sample at the position, or stores the prediction of the leaf if it is out-of-bag
+    void apply(RandomNode leaf, int position) {
+        int    index  = this.order[position];
+        Sample sample = this.samples.get(index);
+
+        if (this.tries[index] == 0) {
+            leaf.getConfidence(this.confidence);
+            this.predictions[index] = Utilities.getMaxCoeffIndex(this.confidence);
+        } else if (this.weightedBagging) {
+            leaf.update(sample, this.tries[index] * sample.getWeight());
+        } else {
+            for (int nTry = 0; nTry < this.tries[index]; nTry++) {
+                leaf.update(sample, sample.getWeight());
+            }
+        }
+    }
+
+    Sample getSampleAt(int position) {
+        return this.samples.get(this.order[position]);
+    }
+
+    int getTriesAt(int position) {
+        return this.tries[this.order[position]];
+    }
+
+    boolean isWeightedBagging() {
+        return this.weightedBagging;
+    }
+
+    // stable partition of [from, to): false first (left child), returns the first position of the true samples
+    int partition(RandomTest test, int from, int to) {
+        int numFalse = from;
+        int numTrue  = 0;
+
+        for (int position = from; position < to; position++) {
+            int index = this.order[position];
+            if (test.eval(this.samples.get(index))) {
+                this.temp[numTrue++] = index;
+            } else {
+                this.order[numFalse++] = index;
+            }
+        }
+
+        System.arraycopy(this.temp, 0, this.order, numFalse, numTrue);
+
+        return numFalse;
+    }
+}
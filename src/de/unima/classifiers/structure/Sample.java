@@ -2,9 +2,11 @@ package de.unima.classifiers.structure;
 
 /**
  * Container that covers a single sample/record, i.e., feature values, the corresponding label, and a optional weight.
+ * The classifiers access the feature values only by {@link #getValue(int)}, hence, subclasses may provide the values
+ * from a different storage, e.g., a row of a columnar data set or the non-zero values of a {@link SparseSample}.
  *
  * @author Timo Sztyler
- * @version 29.09.2016
+ * @version 17.10.2026
  */
 public class Sample {
 
@@ -20,6 +22,25 @@ public class Sample {
         this.id = id;
     }
 
+    protected Sample() {
+
+    }
+
+    // for subclasses that keep the feature values in a different storage
+    protected Sample(int label, double weight, int id) {
+        this.label = label;
+        this.weight = weight;
+        this.id = id;
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    public int getNumOfValues() {
+        return values.length;
+    }
+
     public double[] getValues() {
         return values;
     }
@@ -0,0 +1,90 @@
+package de.unima.classifiers.structure;
+
+import java.util.Arrays;
+
+/**
+ * Sparse Sample. Keeps only the non-zero feature values and their indices (ascending), all other values are implicitly
+ * zero. {@link #getValue(int)} is a binary search over the indices, i.e., the memory and the time to evaluate a random
+ * test depend on the number of non-zero values instead of the number of features. {@link #getValues()} creates a dense
+ * copy and should be avoided for high-dimensional data. The non-zero values are stored either as double or as float.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public class SparseSample extends Sample {
+    private int[]    indices;
+    private double[] values;
+    private float[]  floatValues;   // instead of values if the sample is single-precision
+    private int      numOfValues;   // number of features including the implicit zeros
+
+    public SparseSample(int[] indices, double[] values, int numOfValues, int label, double weight, int id) {
+        super(label, weight, id);
+
+        checkIndices(indices, values.length, numOfValues);
+        this.indices = indices;
+        this.values = values;
+        this.numOfValues = numOfValues;
+    }
+
+    public SparseSample(int[] indices, float[] values, int numOfValues, int label, double weight, int id) {
+        super(label, weight, id);
+
+        checkIndices(indices, values.length, numOfValues);
+        this.indices = indices;
+        this.floatValues = values;
+        this.numOfValues = numOfValues;
+    }
+
+    private static void checkIndices(int[] indices, int numOfNonZeros, int numOfValues) {
+        if (indices.length != numOfNonZeros) {
+            throw new IllegalArgumentException("Number of indices and values differ: " + indices.length + " != " + numOfNonZeros);
+        }
+
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] < 0 || indices[i] >= numOfValues || (i > 0 && indices[i] <= indices[i - 1])) {
+                throw new IllegalArgumentException("Indices have to be ascending and in [0, " + numOfValues + "): " + indices[i]);
+            }
+        }
+    }
+
+    @Override
+    public double getValue(int index) {
+        int position = Arrays.binarySearch(this.indices, index);
+        if (position < 0) {
+            return 0.0d;
+        }
+
+        return this.floatValues != null ? this.floatValues[position] : this.values[position];
+    }
+
+    @Override
+    public int getNumOfValues() {
+        return numOfValues;
+    }
+
+    // dense copy of the feature values
+    @Override
+    public double[] getValues() {
+        double[] dense = new double[this.numOfValues];
+
+        for (int i = 0; i < this.indices.length; i++) {
+            dense[this.indices[i]] = this.getNonZeroValue(i);
+        }
+
+        return dense;
+    }
+
+    public int getNumOfNonZeros() {
+        return this.indices.length;
+    }
+
+    // ascending feature indices of the non-zero values
+    public int[] getIndices() {
+        return indices;
+    }
+
+    // value of the i-th non-zero entry
+    public double getNonZeroValue(int i) {
+        return this.floatValues != null ? this.floatValues[i] : this.values[i];
+    }
+}
@@ -0,0 +1,39 @@
+package de.unima.classifiers;
+
+import de.unima.classifiers.dataset.ARFF;
+import de.unima.classifiers.dataset.DataSet;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Test Data. Loads the bundled data sets of the data directory with the numeric features of the example usage.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+public final class TestData {
+    public static final Integer[] FEATURES = new Integer[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 15, 16, 17, 21, 22, 23, 27, 28, 29, 36, 37, 38, 39, 40, 41, 46, 47, 49};
+
+    private TestData() {
+
+    }
+
+    public static DataSet loadTrain() throws IOException {
+        return load(new ARFF(), "data/data_train.arff");
+    }
+
+    public static DataSet loadTest() throws IOException {
+        return load(new ARFF(), "data/data_test.arff");
+    }
+
+    public static <T extends DataSet> T load(T ds, String file) throws IOException {
+        ds.setFeatureFilter(FEATURES, false);
+        try (InputStream is = new FileInputStream(file)) {
+            ds.load(is);
+        }
+
+        return ds;
+    }
+}
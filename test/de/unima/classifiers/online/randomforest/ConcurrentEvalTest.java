@@ -0,0 +1,341 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.Config;
+import de.unima.classifiers.TestData;
+import de.unima.classifiers.Utilities;
+import de.unima.classifiers.dataset.DataSet;
+import de.unima.classifiers.structure.Result;
+import de.unima.classifiers.structure.Sample;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test of 'concurrentEval': the forest is trained on one thread (or by worker threads) while other threads
+ * classify samples and walk the trees. Readers must never see a half-built node, i.e., a split without test or children,
+ * a child with a wrong depth, or a class distribution that is not a distribution, and never weights outside [0, 1].
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class ConcurrentEvalTest {
+    private static final int NUM_READERS = 4;
+    private static final int NUM_EPOCHS  = 3;
+    private static final int NUM_THREADS = 4;   // worker threads of the forest
+
+    @Test
+    void evalNeverSeesHalfBuiltNodes() throws Exception {
+        Config config = newConfig();
+        this.stress(config);
+    }
+
+    @Test
+    void evalNeverSeesHalfBuiltNodesWhileSubtreesCollapse() throws Exception {
+        Config config = newConfig();
+        config.maxNodes = 400;
+        config.collapseSubtrees = true;
+        this.stress(config);
+    }
+
+    @Test
+    void evalWithWorkersNeverSeesHalfBuiltNodes() throws Exception {
+        Config config = newConfig();
+        config.numThreads = NUM_THREADS;
+        this.stress(config);
+    }
+
+    @Test
+    void weightedEvalNeverSeesInvalidWeights() throws Exception {
+        Config config = newConfig();
+        config.weightIndividualResult = true;
+        this.stress(config);
+    }
+
+    // the workers count the out-of-bag predictions, eval must not see weights of a counter that lags behind
+    @Test
+    void weightedEvalWithWorkersNeverSeesInvalidWeights() throws Exception {
+        Config config = newConfig();
+        config.weightIndividualResult = true;
+        config.numThreads = NUM_THREADS;
+        this.stress(config);
+    }
+
+    /**
+     * The forest is compiled and flushed by another thread while it is trained by workers. Afterwards, every out-of-bag
+     * prediction of the trees has to be counted exactly once.
+     */
+    @Test
+    void flushWhileTrainingDoesNotLoseOutOfBagCounts() throws Exception {
+        Config config = newConfig();
+        config.weightIndividualResult = true;
+        config.numThreads = NUM_THREADS;
+
+        DataSet                    ds       = TestData.loadTrain();
+        RandomForest               rf       = new RandomForest(config, ds);
+        AtomicBoolean              training = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure  = new AtomicReference<>();
+        Thread                     flusher  = new Thread(() -> {
+            try {
+                for (int n = 0; training.get(); n++) {
+                    if (n % 100 == 0) {
+                        rf.compile();
+                    } else {
+                        rf.flush();
+                    }
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }, "Flusher");
+        flusher.start();
+
+        try {
+            for (int nEpoch = 0; nEpoch < NUM_EPOCHS; nEpoch++) {
+                for (Sample sample : ds.getSamples()) {
+                    rf.update(sample);
+                }
+            }
+        } finally {
+            training.set(false);
+            flusher.join();
+            rf.shutdown();
+        }
+
+        assertNull(failure.get(), () -> "flusher failed: " + failure.get());
+
+        assertEquals(rf.getMetrics().getOutOfBag(), sum(rf.getCounter()), "out-of-bag predictions");
+    }
+
+    @Test
+    void weightsMatchTheCurrentStatistics() throws Exception {
+        Config config = newConfig();
+        config.weightIndividualResult = true;
+        this.assertWeightsPerRound(config);
+    }
+
+    @Test
+    void weightsOfWorkersMatchTheCurrentStatistics() throws Exception {
+        Config config = newConfig();
+        config.weightIndividualResult = true;
+        config.numThreads = NUM_THREADS;
+        this.assertWeightsPerRound(config);
+    }
+
+    /**
+     * The forest is trained in short rounds while the readers classify samples (i.e., compute the weights). After each
+     * round, the readers are paused, the queued samples are trained, and the weights that eval uses have to be those of
+     * the current out-of-bag statistics, i.e., a reader must not have stored weights of older statistics.
+     */
+    private void assertWeightsPerRound(Config config) throws Exception {
+        DataSet                    ds         = TestData.loadTrain();
+        List<Sample>               samples    = ds.getSamples();
+        int                        numClasses = ds.getNumOfClasses();
+        RandomForest               rf         = new RandomForest(config, numClasses, ds.getNumOfFeatures(), ds.getMinFeatRange(), ds.getMaxFeatRange());
+        ReadWriteLock              pause      = new ReentrantReadWriteLock();
+        AtomicBoolean              training   = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure    = new AtomicReference<>();
+        List<Thread>               readers    = new ArrayList<>();
+
+        for (int nReader = 0; nReader < NUM_READERS; nReader++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Result            result = new Result(numClasses);
+
+                try {
+                    while (training.get()) {
+                        pause.readLock().lock();
+                        try {
+                            rf.eval(samples.get(random.nextInt(samples.size())), result);
+                        } finally {
+                            pause.readLock().unlock();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "Reader-" + nReader);
+            readers.add(thread);
+            thread.start();
+        }
+
+        try {
+            for (int from = 0; from < samples.size(); from += 10) {
+                for (Sample sample : samples.subList(from, Math.min(samples.size(), from + 10))) {
+                    rf.update(sample);
+                }
+
+                pause.writeLock().lock();
+                try {
+                    rf.flush();
+                    assertWeights(rf, config, samples.subList(0, 20), numClasses);
+                } finally {
+                    pause.writeLock().unlock();
+                }
+            }
+        } finally {
+            training.set(false);
+            for (Thread thread : readers) {
+                thread.join();
+            }
+            rf.shutdown();
+        }
+
+        assertNull(failure.get(), () -> "reader failed: " + failure.get());
+    }
+
+    private static void assertWeights(RandomForest rf, Config config, List<Sample> samples, int numClasses) {
+        double[] tree = new double[numClasses];
+
+        for (Sample sample : samples) {
+            Result result = new Result(numClasses);
+            rf.eval(sample, result);
+
+            double[] expected = new double[numClasses];
+            for (int nTree = 0; nTree < config.numTree; nTree++) {
+                rf.getTrees()[nTree].eval(sample, tree);
+                for (int nClass = 0; nClass < numClasses; nClass++) {
+                    expected[nClass] += tree[nClass] * Utilities.calcWeight(rf.getCounter()[nClass], rf.getTreeStats()[nTree][nClass]);
+                }
+            }
+            for (int nClass = 0; nClass < numClasses; nClass++) {
+                expected[nClass] /= config.numTree;
+            }
+
+            assertArrayEquals(expected, result.getConfidence(), 1e-12);
+        }
+    }
+
+    private static Config newConfig() {
+        Config config = new Config();
+        config.numTree = 8;
+        config.seed = 42;
+        config.sampleThreshold = 20;     // many splits
+        config.concurrentEval = true;
+        return config;
+    }
+
+    private RandomForest stress(Config config) throws Exception {
+        DataSet            ds         = TestData.loadTrain();
+        List<Sample>       samples    = ds.getSamples();
+        int                numClasses = ds.getNumOfClasses();
+        RandomForest       rf         = new RandomForest(config, numClasses, ds.getNumOfFeatures(), ds.getMinFeatRange(), ds.getMaxFeatRange());
+        AtomicBoolean      training   = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread>       readers    = new ArrayList<>();
+        long[]             numEvals   = new long[NUM_READERS];
+
+        for (int nReader = 0; nReader < NUM_READERS; nReader++) {
+            final int reader = nReader;
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Result            result = new Result(numClasses);
+                double[]          leaf   = new double[numClasses];
+
+                try {
+                    while (training.get()) {
+                        result.setConfidence(new double[numClasses]);
+                        rf.eval(samples.get(random.nextInt(samples.size())), result);
+                        checkResult(result, numClasses, config.weightIndividualResult);
+
+                        RandomTree tree = rf.getTrees()[random.nextInt(config.numTree)];
+                        checkNode(tree.getRootNode(), 0, leaf);
+
+                        // a prediction is counted before it is added to the metrics, i.e., the counter is never behind
+                        long outOfBag = rf.getMetrics().getOutOfBag();
+                        assertTrue(sum(rf.getCounter()) >= outOfBag, "out-of-bag counter behind " + outOfBag + " predictions");
+                        numEvals[reader]++;
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "Reader-" + nReader);
+            readers.add(thread);
+            thread.start();
+        }
+
+        try {
+            for (int nEpoch = 0; nEpoch < NUM_EPOCHS; nEpoch++) {
+                for (Sample sample : samples) {
+                    rf.update(sample);
+                }
+            }
+            rf.flush();
+        } finally {
+            training.set(false);
+            for (Thread thread : readers) {
+                thread.join();
+            }
+            rf.shutdown();
+        }
+
+        assertNull(failure.get(), () -> "reader failed: " + failure.get());
+        for (long n : numEvals) {
+            assertTrue(n > 0, "every reader has to classify samples while the forest is trained");
+        }
+        assertTrue(rf.getNumOfNodes() > config.numTree, "the trees have to be split while they are read");
+
+        return rf;
+    }
+
+    // the weights are in [0, 1], i.e., weighted values sum up to at most 1
+    private static void checkResult(Result result, int numClasses, boolean weighted) {
+        double sum = 0;
+        for (double value : result.getConfidence()) {
+            assertTrue(value >= 0, "confidence value " + value);
+            sum += value;
+        }
+
+        if (weighted) {
+            assertTrue(sum <= 1.0 + 1e-9, "sum of the weighted confidence values " + sum);
+        } else {
+            assertEquals(1.0, sum, 1e-9, "sum of the confidence values");
+        }
+
+        assertTrue(result.getPrediction() >= 0 && result.getPrediction() < numClasses, "prediction " + result.getPrediction());
+    }
+
+    private static long sum(int[] values) {
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+
+        return sum;
+    }
+
+    // every split that a reader can reach is complete
+    private static void checkNode(RandomNode node, int depth, double[] leaf) {
+        assertEquals(depth, node.getDepth(), "depth of a node");
+
+        Split split = node.getSplit();
+        if (split == null) {
+            node.getConfidence(leaf);
+
+            double sum = 0;
+            for (double value : leaf) {
+                assertTrue(value >= 0, "leaf confidence " + value);
+                sum += value;
+            }
+            assertEquals(1.0, sum, 1e-9, "sum of the leaf confidence values");
+            return;
+        }
+
+        assertNotNull(split.getTest(), "test of a split");
+        assertNotNull(split.getLeftChildNode(), "left child of a split");
+        assertNotNull(split.getRightChildNode(), "right child of a split");
+        checkNode(split.getLeftChildNode(), depth + 1, leaf);
+        checkNode(split.getRightChildNode(), depth + 1, leaf);
+    }
+}
@@ -0,0 +1,97 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.Config;
+import de.unima.classifiers.TestData;
+import de.unima.classifiers.dataset.DataSet;
+import de.unima.classifiers.structure.Result;
+import de.unima.classifiers.structure.Sample;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that classifying a sample with a trained forest or tree does not allocate memory once the result has a
+ * confidence array.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class EvalAllocationTest {
+    private static final int  NUM_EVALS     = 20000;
+    private static final long MAX_ALLOCATED = 1024;   // in total, the allocation counter itself allocates a few bytes
+
+    @Test
+    void forestEvalDoesNotAllocate() throws Exception {
+        this.assertNoAllocation(false);
+    }
+
+    @Test
+    void weightedForestEvalDoesNotAllocate() throws Exception {
+        this.assertNoAllocation(true);
+    }
+
+    @Test
+    void treeEvalDoesNotAllocate() throws Exception {
+        DataSet      ds      = TestData.loadTrain();
+        List<Sample> samples = ds.getSamples();
+        RandomForest rf      = this.train(ds, false);
+        RandomTree   tree    = rf.getTrees()[0];
+        Result       result  = new Result(ds.getNumOfClasses());
+
+        long allocated = measure(() -> {
+            for (int i = 0; i < NUM_EVALS; i++) {
+                tree.eval(samples.get(i % samples.size()), result);
+            }
+        });
+
+        assertTrue(allocated < MAX_ALLOCATED, "bytes allocated by " + NUM_EVALS + " evals: " + allocated);
+    }
+
+    private void assertNoAllocation(boolean weighted) throws Exception {
+        DataSet      ds      = TestData.loadTrain();
+        List<Sample> samples = ds.getSamples();
+        RandomForest rf      = this.train(ds, weighted);
+        Result       result  = new Result(ds.getNumOfClasses());
+
+        long allocated = measure(() -> {
+            for (int i = 0; i < NUM_EVALS; i++) {
+                rf.eval(samples.get(i % samples.size()), result);
+            }
+        });
+
+        assertTrue(allocated < MAX_ALLOCATED, "bytes allocated by " + NUM_EVALS + " evals: " + allocated);
+    }
+
+    private RandomForest train(DataSet ds, boolean weighted) {
+        Config config = new Config();
+        config.numTree = 10;
+        config.seed = 42;
+        config.weightIndividualResult = weighted;
+
+        RandomForest rf = new RandomForest(config, ds.getNumOfClasses(), ds.getNumOfFeatures(), ds.getMinFeatRange(), ds.getMaxFeatRange());
+        for (Sample sample : ds.getSamples()) {
+            rf.update(sample);
+        }
+
+        return rf;
+    }
+
+    // bytes allocated by the current thread during the second run, i.e., after the code was warmed up
+    private static long measure(Runnable runnable) {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "no allocation counter");
+
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled(), "no allocation counter");
+
+        long threadId = Thread.currentThread().getId();
+        runnable.run();
+
+        long before = bean.getThreadAllocatedBytes(threadId);
+        runnable.run();
+        return bean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
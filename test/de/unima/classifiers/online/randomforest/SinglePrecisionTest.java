@@ -0,0 +1,128 @@
+package de.unima.classifiers.online.randomforest;
+
+import de.unima.classifiers.Config;
+import de.unima.classifiers.TestData;
+import de.unima.classifiers.dataset.ColumnarDataSet;
+import de.unima.classifiers.dataset.DataSet;
+import de.unima.classifiers.online.Predictor;
+import de.unima.classifiers.structure.Result;
+import de.unima.classifiers.structure.Sample;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a forest that stores its statistics and its data as float classifies the bundled data sets as accurately
+ * as a forest that uses double, and that the compiled forest predicts the same classes as the forest it is compiled
+ * from. The data of the float forest is loaded in single precision as well.
+ *
+ * @author Timo Sztyler
+ * @version 17.10.2026
+ */
+class SinglePrecisionTest {
+    private static final long[] SEEDS     = {1, 2, 3};
+    private static final double TOLERANCE = 0.005;  // of the mean accuracy over all seeds
+    private static final double MIN_ACC   = 0.9;    // the double forest reaches about 0.95 in all modes
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ERF", "RANDOM", "EXACT", "HISTOGRAM"})
+    void floatIsAsAccurateAsDouble(String mode) throws Exception {
+        DataSet train      = TestData.loadTrain();
+        DataSet test       = TestData.loadTest();
+        DataSet floatTrain = ColumnarDataSet.of(train, true);
+        DataSet floatTest  = ColumnarDataSet.of(test, true);
+
+        double accuracy      = 0;
+        double floatAccuracy = 0;
+        for (long seed : SEEDS) {
+            RandomForest rf      = train(train, createConfig(mode, seed, false));
+            RandomForest floatRf = train(floatTrain, createConfig(mode, seed, true));
+
+            accuracy += accuracy(rf, test);
+            floatAccuracy += accuracy(floatRf, floatTest);
+
+            assertSamePredictions(rf, rf.compile(), test);
+            assertSamePredictions(floatRf, floatRf.compile(), floatTest);
+        }
+
+        assertTrue(accuracy / SEEDS.length > MIN_ACC, "mean accuracy of double: " + accuracy / SEEDS.length);
+        assertEquals(accuracy / SEEDS.length, floatAccuracy / SEEDS.length, TOLERANCE, "mean accuracy of double and float");
+    }
+
+    // ERF = extremely randomized forest, i.e., the random thresholds are not refined
+    private static Config createConfig(String mode, long seed, boolean singlePrecision) {
+        Config config = new Config();
+        config.numTree = 10;
+        config.numEpochs = 3;
+        config.seed = seed;
+        config.singlePrecision = singlePrecision;
+
+        switch (mode) {
+            case "ERF":
+                config.refineThreshold = false;
+                break;
+            case "HISTOGRAM":
+                config.splitStats = "HISTOGRAM";
+                break;
+            default:
+                config.refineMode = mode;
+        }
+
+        return config;
+    }
+
+    // the files are sorted by class, both forests see the rows in the same shuffled order
+    private static RandomForest train(DataSet ds, Config config) {
+        RandomForest rf      = new RandomForest(config, ds.getNumOfClasses(), ds.getNumOfFeatures(), ds.getMinFeatRange(), ds.getMaxFeatRange());
+        List<Sample> samples = ds.getSamples();
+        int[]        order   = new int[samples.size()];
+        Random       random  = new Random(config.seed);
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        for (int nEpoch = 0; nEpoch < config.numEpochs; nEpoch++) {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j   = random.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+
+            for (int index : order) {
+                rf.update(samples.get(index));
+            }
+        }
+
+        return rf;
+    }
+
+    private static double accuracy(Predictor predictor, DataSet ds) {
+        Result result  = new Result(ds.getNumOfClasses());
+        int    correct = 0;
+
+        for (Sample sample : ds.getSamples()) {
+            predictor.eval(sample, result);
+            correct += result.getPrediction() == sample.getLabel() ? 1 : 0;
+        }
+
+        return (double) correct / ds.getSamples().size();
+    }
+
+    private static void assertSamePredictions(RandomForest rf, CompiledForest compiled, DataSet ds) {
+        Result result         = new Result(ds.getNumOfClasses());
+        Result compiledResult = new Result(ds.getNumOfClasses());
+
+        for (Sample sample : ds.getSamples()) {
+            rf.eval(sample, result);
+            compiled.eval(sample, compiledResult);
+            assertEquals(result.getPrediction(), compiledResult.getPrediction(), "prediction of sample " + sample.getId());
+        }
+    }
+}